@@ -0,0 +1,28 @@
+package com.example.bench;
+
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+
+import java.util.Arrays;
+
+/**
+ * benchmarks.jar 진입점 (org.openjdk.jmh.Main 에 그대로 위임)
+ *
+ * 실행할 benchmark 를 지정하지 않으면 오프라인으로 실행 가능한 suite 만 실행합니다.
+ * CadpClientBenchmark 는 Key Manager 가 필요하므로 CADP_KEY_MANAGER_HOST 가 설정된 경우에만 기본 대상에 포함됩니다.
+ */
+public final class BenchMain {
+
+    static final String OFFLINE_INCLUDE = "com\\.example\\.bench\\.(CrdpClient|EmployeeSerialization)Benchmark";
+
+    private BenchMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String[] jmhArgs = args;
+        if (System.getenv("CADP_KEY_MANAGER_HOST") == null && new CommandLineOptions(args).getIncludes().isEmpty()) {
+            jmhArgs = Arrays.copyOf(args, args.length + 1);
+            jmhArgs[args.length] = OFFLINE_INCLUDE;
+        }
+        org.openjdk.jmh.Main.main(jmhArgs);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.bench;
+
+import com.example.CadpClient;
+import com.example.CryptoBytes;
+import com.example.CryptoResult;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CadpClient 단건 / 페이지 복호화 (로컬 CPU 작업, 키 다운로드 이후), 페이지는 직렬(decPage)과 병렬(decAllPage) 비교
+ * String API와 byte[] API(중간 String 없음)를 같이 측정하며, op당 할당량은 -prof gc 의 gc.alloc.rate.norm 으로 비교합니다.
+ *
+ * Key Manager 등록이 필요하므로 CADP_* 환경 변수가 설정된 경우에만 실행하세요.
+ * CADP_KEY_MANAGER_HOST 가 없으면 benchmark 를 지정하지 않은 실행에서 제외됩니다 (BenchMain 참고).
+ *   java -jar target/benchmarks.jar CadpClientBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CadpClientBenchmark {
+
+    @Param({ "100", "1000" })
+    public int pageSize;
+
+    private CadpClient client;
+    private String single;
+    private List<String> page;
+    private byte[] singleBytes;
+    private byte[] plainBytes;
+    private List<byte[]> pageBytes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        if (System.getenv("CADP_KEY_MANAGER_HOST") == null) {
+            throw new IllegalStateException("CADP_* 환경 변수가 필요합니다 (CADP_KEY_MANAGER_HOST 등)");
+        }
+        client = CadpClient.getInstance();
+        single = client.enc("900101-1234567");
+        if (single == null) {
+            throw new IllegalStateException("CADP 암호화 실패 - Key Manager 연결을 확인하세요");
+        }
+        page = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            page.add(client.enc(String.format("%06d-%07d", 900101 + i, 1000000 + i)));
+        }
+        singleBytes = single.getBytes(StandardCharsets.UTF_8);
+        plainBytes = "900101-1234567".getBytes(StandardCharsets.UTF_8);
+        pageBytes = new ArrayList<>(pageSize);
+        for (String value : page) {
+            pageBytes.add(value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Benchmark
+    public String decSingle() {
+        return client.dec(single);
+    }
+
+    @Benchmark
+    public void decPage(Blackhole bh) {
+        for (String value : page) {
+            bh.consume(client.dec(value));
+        }
+    }
+
+    /** decPage와 같은 입력을 CADP_PARALLELISM 스레드로 나눠서 처리 */
+    @Benchmark
+    public List<CryptoResult> decAllPage() {
+        return client.decAll(page);
+    }
+
+    @Benchmark
+    public CryptoBytes revealSingleBytes() {
+        return client.reveal(singleBytes);
+    }
+
+    @Benchmark
+    public void revealPageBytes(Blackhole bh) {
+        for (byte[] value : pageBytes) {
+            bh.consume(client.reveal(value));
+        }
+    }
+
+    @Benchmark
+    public String encSingle() {
+        return client.enc("900101-1234567");
+    }
+
+    @Benchmark
+    public CryptoBytes protectSingleBytes() {
+        return client.protect(plainBytes);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.bench;
+
+import com.example.CrdpClient;
+import com.example.CryptoResult;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CrdpClient 단건 / 페이지(순차, bulk, 비동기) 복호화를 in-process 대체 서버에 대해 측정합니다.
+ * latencyMs 로 CRDP 왕복 지연을 흉내냅니다.
+ *
+ * 매 호출이 대체 서버까지 가야 하므로 DecryptCache 는 꺼진 상태(DECRYPT_CACHE_MAX_ENTRIES=0 또는 미설정)로 실행합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CrdpClientBenchmark {
+
+    @Param({ "0", "1", "5" })
+    public int latencyMs;
+
+    @Param({ "100" })
+    public int pageSize;
+
+    private CrdpStandIn standIn;
+    private CrdpClient client;
+    private String single;
+    private List<String> page;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        String cacheEntries = System.getenv("DECRYPT_CACHE_MAX_ENTRIES");
+        if (cacheEntries != null && !cacheEntries.trim().isEmpty() && !"0".equals(cacheEntries.trim())) {
+            throw new IllegalStateException("DECRYPT_CACHE_MAX_ENTRIES=0 으로 실행하세요 (현재 " + cacheEntries + ")");
+        }
+        standIn = CrdpStandIn.start(latencyMs);
+
+        Properties props = new Properties();
+        props.setProperty("crdp_endpoint", standIn.endpoint());
+        props.setProperty("crdp_tls", "false");
+        props.setProperty("crdp_policy", "bench-policy");
+        props.setProperty("crdp_user_name", "bench-user");
+        props.setProperty("crdp_jwt", "bench-token");
+        client = CrdpClient.create(props);
+
+        single = client.enc("900101-1234567");
+        List<String> plain = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            plain.add(String.format("%06d-%07d", 900101 + i, 1000000 + i));
+        }
+        page = new ArrayList<>(pageSize);
+        for (CryptoResult r : client.encBatch(plain)) {
+            page.add(r.getValue());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        standIn.stop();
+    }
+
+    @Benchmark
+    public String decSingle() throws Exception {
+        return client.dec(single);
+    }
+
+    /** 기존 서블릿 방식: 행마다 dec() 순차 호출 */
+    @Benchmark
+    public void decPageSerial(Blackhole bh) throws Exception {
+        for (String value : page) {
+            bh.consume(client.dec(value));
+        }
+    }
+
+    @Benchmark
+    public List<CryptoResult> decPageBulk() {
+        return client.decBatch(page);
+    }
+
+    @Benchmark
+    public List<CryptoResult> decPageAsync() {
+        return client.decPage(page);
+    }
+}
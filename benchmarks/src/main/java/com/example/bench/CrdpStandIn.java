@@ -0,0 +1,119 @@
+package com.example.bench;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 벤치마크용 in-process CRDP 대체 서버 (HTTP, 인증/암호화 없음)
+ * /v1/protect, /v1/reveal, /v1/protectbulk, /v1/revealbulk 를 흉내내며 요청마다 latencyMs 만큼 지연합니다.
+ * protect 결과는 "enc:" 접두사를 붙인 값입니다.
+ */
+public class CrdpStandIn {
+
+    private static final String PREFIX = "enc:";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final int latencyMs;
+
+    private CrdpStandIn(int latencyMs) throws IOException {
+        this.latencyMs = latencyMs;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "crdp-standin");
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(executor);
+        server.createContext("/v1/", this::handle);
+    }
+
+    public static CrdpStandIn start(int latencyMs) throws IOException {
+        CrdpStandIn standIn = new CrdpStandIn(latencyMs);
+        standIn.server.start();
+        return standIn;
+    }
+
+    public String endpoint() {
+        return "127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        JsonObject request;
+        try (InputStream in = exchange.getRequestBody()) {
+            request = JsonParser.parseString(new String(in.readAllBytes(), StandardCharsets.UTF_8)).getAsJsonObject();
+        }
+
+        if (latencyMs > 0) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        String path = exchange.getRequestURI().getPath();
+        JsonObject response = new JsonObject();
+        switch (path) {
+            case "/v1/protect":
+                response.addProperty("protected_data", PREFIX + request.get("data").getAsString());
+                break;
+            case "/v1/reveal":
+                response.addProperty("data", reveal(request.get("protected_data").getAsString()));
+                break;
+            case "/v1/protectbulk": {
+                JsonArray out = new JsonArray();
+                for (JsonElement item : request.getAsJsonArray("data_array")) {
+                    JsonObject o = new JsonObject();
+                    o.addProperty("protected_data", PREFIX + item.getAsString());
+                    out.add(o);
+                }
+                response.add("protected_data_array", out);
+                break;
+            }
+            case "/v1/revealbulk": {
+                JsonArray out = new JsonArray();
+                for (JsonElement item : request.getAsJsonArray("protected_data_array")) {
+                    JsonObject o = new JsonObject();
+                    o.addProperty("data", reveal(item.getAsJsonObject().get("protected_data").getAsString()));
+                    out.add(o);
+                }
+                response.add("data_array", out);
+                break;
+            }
+            default:
+                exchange.sendResponseHeaders(404, -1);
+                exchange.close();
+                return;
+        }
+
+        byte[] body = response.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String reveal(String protectedData) {
+        return protectedData.startsWith(PREFIX) ? protectedData.substring(PREFIX.length()) : protectedData;
+    }
+}
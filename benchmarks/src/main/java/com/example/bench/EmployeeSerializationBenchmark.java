@@ -0,0 +1,76 @@
+package com.example.bench;
+
+import com.example.model.Employee;
+import com.example.servlet.EmployeeJson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Employee 페이지 JSON 직렬화 비용 (100 / 1k / 10k 행)
+ * 할당량은 -prof gc 로 확인합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeSerializationBenchmark {
+
+    @Param({ "100", "1000", "10000" })
+    public int rows;
+
+    private List<Employee> page;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        page = new ArrayList<>(rows);
+        LocalDate birth = LocalDate.of(1960, 1, 1);
+        LocalDate hire = LocalDate.of(1990, 1, 1);
+        for (int i = 0; i < rows; i++) {
+            page.add(new Employee(10001 + i, birth.plusDays(i % 10000), "First" + i, "Last" + i,
+                    (i & 1) == 0 ? "M" : "F", hire.plusDays(i % 8000),
+                    String.format("%06d-%07d", 600101 + (i % 300000), 1000000 + i)));
+        }
+    }
+
+    /** 기존 서블릿 방식: 요청마다 GsonBuilder 생성 후 toJson(list) 로 전체 문자열 생성 */
+    @Benchmark
+    public String gsonPerRequest() {
+        return new GsonBuilder()
+                .registerTypeAdapter(LocalDate.class, new EmployeeJson.LocalDateAdapter())
+                .create()
+                .toJson(page);
+    }
+
+    /** 공유 Gson 인스턴스로 전체 문자열 생성 */
+    @Benchmark
+    public String sharedGson() {
+        return EmployeeJson.GSON.toJson(page);
+    }
+
+    /** 현재 서블릿 방식: JsonWriter 로 행 단위 스트리밍 */
+    @Benchmark
+    public void streaming() throws IOException {
+        JsonWriter out = new JsonWriter(new BufferedWriter(
+                new OutputStreamWriter(OutputStream.nullOutputStream(), StandardCharsets.UTF_8)));
+        out.setHtmlSafe(true);
+        out.beginArray();
+        for (Employee e : page) {
+            EmployeeJson.ADAPTER.write(out, e);
+        }
+        out.endArray();
+        out.flush();
+    }
+}
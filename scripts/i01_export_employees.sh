@@ -14,8 +14,12 @@ docker exec $CONTAINER_NAME rm -f $EXPORT_PATH_IN_CONTAINER
 
 echo "Step 2: Executing Export SQL (Inline)..."
 # Execute SQL directly
+# Explicit column list: must match the LOAD DATA column list in i03_reload_employees.sh
+# (SELECT * would also dump the binary ssn_hmac column and shift the CSV columns)
 docker exec -i $CONTAINER_NAME mysql -u$MYSQL_USER -p$MYSQL_PASSWORD $MYSQL_DATABASE <<EOF
-SELECT * INTO OUTFILE '$EXPORT_PATH_IN_CONTAINER'
+SELECT emp_no, employee_id, date_of_birth, first_name, last_name, middle_names, gender, date_of_hiring,
+       date_of_termination, date_of_probation_end, ssn_no
+INTO OUTFILE '$EXPORT_PATH_IN_CONTAINER'
 FIELDS TERMINATED BY ','
 LINES TERMINATED BY '\n'
 FROM employee;
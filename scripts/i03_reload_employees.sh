@@ -37,3 +37,6 @@ SET FOREIGN_KEY_CHECKS = 1;
 EOF
 
 echo "Success! Data reloaded from $LOCAL_INPUT_FILE"
+# TRUNCATE + reload leaves employee.ssn_hmac empty, so SSN lookups miss every row until the index is rebuilt
+echo "If SSN_HMAC_KEY is set, re-run the blind index backfill:"
+echo "  curl -X POST 'http://localhost:8081/api/admin/ssn-index?provider=cadp&threads=4'"
@@ -55,6 +55,22 @@ CREATE TABLE `salary` (
   CONSTRAINT `salary_ibfk_1` FOREIGN KEY (`emp_no`) REFERENCES `employee` (`emp_no`) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='Map the employyee to his salary, we need this table because the actual salary depends on mor than the salary gruoup';
 /*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Table structure for table `ssn_rotation_checkpoint` (in-app SSN re-encryption progress)
+--
+
+CREATE TABLE IF NOT EXISTS `ssn_rotation_checkpoint` (
+  `job_id` varchar(64) NOT NULL,
+  `range_start` int NOT NULL,
+  `range_end` int NOT NULL,
+  `last_emp_no` int NOT NULL,
+  `rows_done` bigint NOT NULL DEFAULT '0',
+  `rows_failed` bigint NOT NULL DEFAULT '0',
+  `done` tinyint(1) NOT NULL DEFAULT '0',
+  `updated_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`job_id`,`range_start`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40103 SET TIME_ZONE=@OLD_TIME_ZONE */;
 
 /*!40101 SET SQL_MODE=@OLD_SQL_MODE */;
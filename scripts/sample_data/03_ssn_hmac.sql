@@ -0,0 +1,7 @@
+USE mysql_employees;
+-- SSN blind index (HMAC-SHA256 of the normalized plaintext SSN, filled by the app; see README "SSN 조회")
+-- Runs after 02_load_data.sql on a fresh container; for an existing database:
+-- ./run_sql.sh < sample_data/03_ssn_hmac.sql
+ALTER TABLE employee
+  ADD COLUMN `ssn_hmac` binary(32) DEFAULT NULL COMMENT 'HMAC-SHA256(SSN_HMAC_KEY, ssn) for equality lookup',
+  ADD KEY `idx_employee_ssn_hmac` (`ssn_hmac`);
@@ -5,11 +5,21 @@ import com.centralmanagement.CipherTextData;
 import com.centralmanagement.ClientObserver;
 import com.centralmanagement.RegisterClientParameters;
 import com.centralmanagement.policy.CryptoManager;
+import com.example.metrics.Counter;
+import com.example.metrics.Histogram;
+import com.example.metrics.Metrics;
 
-import java.io.IOException;
-import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 public class CadpClient {
 
@@ -17,8 +27,43 @@ public class CadpClient {
     private String protectionPolicyName;
     private String userName;
 
+    // 등록 재시도용 (Key Manager 에 연결하지 못한 채 기동된 경우)
+    private String keyManagerHost;
+    private String keyManagerPort;
+    private String registrationToken;
+    private volatile boolean registered;
+
     private static volatile CadpClient instance;
 
+    // 일괄 처리(decAll / encAll) 설정
+    private static final int PARALLELISM = Math.max(1,
+            Env.getInt("CADP_PARALLELISM", Runtime.getRuntime().availableProcessors()));
+    private static final int PARALLEL_THRESHOLD = Math.max(1, Env.getInt("CADP_PARALLEL_THRESHOLD", 64));
+    private static final int MIN_CHUNK = 32;
+    private static final AtomicInteger PARALLEL_THREAD_SEQ = new AtomicInteger();
+    private static final ForkJoinPool PARALLEL_POOL = new ForkJoinPool(PARALLELISM, pool -> {
+        ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        t.setName("cadp-crypto-" + PARALLEL_THREAD_SEQ.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    }, null, false);
+
+    // reveal 입력용 CipherTextData (스레드별 재사용, 호출이 끝나면 비워 둠)
+    private static final ThreadLocal<CipherTextData> REVEAL_HOLDER = ThreadLocal.withInitial(CipherTextData::new);
+
+    private static final Histogram ENC_TIME = Metrics.histogram("app_crypto_call_seconds",
+            "Crypto provider call time (per value for CADP, per HTTP call for CRDP)", "provider", "cadp", "op", "enc");
+    private static final Histogram DEC_TIME = Metrics.histogram("app_crypto_call_seconds",
+            "Crypto provider call time (per value for CADP, per HTTP call for CRDP)", "provider", "cadp", "op", "dec");
+    private static final Counter ENC_ERRORS = Metrics.counter("app_crypto_errors_total",
+            "Crypto provider errors", "provider", "cadp", "op", "enc");
+    private static final Counter DEC_ERRORS = Metrics.counter("app_crypto_errors_total",
+            "Crypto provider errors", "provider", "cadp", "op", "dec");
+    private static final Histogram REPROTECT_TIME = Metrics.histogram("app_crypto_call_seconds",
+            "Crypto provider call time (per value for CADP, per HTTP call for CRDP)", "provider", "cadp", "op", "reprotect");
+    private static final Counter REPROTECT_ERRORS = Metrics.counter("app_crypto_errors_total",
+            "Crypto provider errors", "provider", "cadp", "op", "reprotect");
+
     private CadpClient() {
         initialize();
     }
@@ -34,57 +79,47 @@ public class CadpClient {
         return instance;
     }
 
+    /**
+     * Key Manager 주소가 설정되어 있는지 (CADP_KEY_MANAGER_HOST 또는 cadp.properties 의 keyManagerHost).
+     * 클라이언트를 만들지 않고 확인합니다.
+     */
+    public static boolean isConfigured() {
+        return Env.get(Env.classpathProperties(PROPERTIES_FILE), "CADP_KEY_MANAGER_HOST", "keyManagerHost", null) != null;
+    }
+
     private void initialize() {
-        Properties prop = loadProperties();
-        if (prop == null) {
-            System.err.println("Failed to load cadp.properties");
+        // 환경 변수(Vault 주입)가 우선, 없으면 cadp.properties
+        Properties prop = Env.classpathProperties(PROPERTIES_FILE);
+        this.keyManagerHost = Env.get(prop, "CADP_KEY_MANAGER_HOST", "keyManagerHost", null);
+        this.keyManagerPort = Env.get(prop, "CADP_KEY_MANAGER_PORT", "keyManagerPort", null);
+        this.registrationToken = Env.get(prop, "CADP_REGISTRATION_TOKEN", "registrationToken", null);
+        this.protectionPolicyName = Env.get(prop, "CADP_PROTECTION_POLICY_NAME", "protectionPolicyName", null);
+        this.userName = Env.get(prop, "CADP_USER_NAME", "userName", null);
+        if (keyManagerHost == null || registrationToken == null) {
+            System.err.println("Missing CADP configuration (CADP_KEY_MANAGER_HOST / CADP_REGISTRATION_TOKEN)");
             return;
         }
-        String keyManagerHost = System.getenv("CADP_KEY_MANAGER_HOST");
-        if (keyManagerHost == null || keyManagerHost.isEmpty()) {
-            keyManagerHost = prop.getProperty("keyManagerHost");
-        }
 
-        String keyManagerPort = System.getenv("CADP_KEY_MANAGER_PORT");
-        if (keyManagerPort == null || keyManagerPort.isEmpty()) {
-            keyManagerPort = prop.getProperty("keyManagerPort");
-        }
-
-        String registrationToken = System.getenv("CADP_REGISTRATION_TOKEN");
-        if (registrationToken == null || registrationToken.isEmpty()) {
-            registrationToken = prop.getProperty("registrationToken");
-        }
-
-        this.protectionPolicyName = System.getenv("CADP_PROTECTION_POLICY_NAME");
-        if (this.protectionPolicyName == null || this.protectionPolicyName.isEmpty()) {
-            this.protectionPolicyName = prop.getProperty("protectionPolicyName");
-        }
+        registered = registerClient(keyManagerHost, keyManagerPort, registrationToken);
+    }
 
-        this.userName = System.getenv("CADP_USER_NAME");
-        if (this.userName == null || this.userName.isEmpty()) {
-            this.userName = prop.getProperty("userName");
+    /**
+     * 기동 시 등록에 실패했으면 다시 등록합니다. (CryptoWarmup 재시도에서 호출)
+     *
+     * @return 등록되어 있으면 true
+     */
+    public synchronized boolean ensureRegistered() {
+        if (!registered && keyManagerHost != null && registrationToken != null) {
+            registered = registerClient(keyManagerHost, keyManagerPort, registrationToken);
         }
-
-        registerClient(keyManagerHost, keyManagerPort, registrationToken);
+        return registered;
     }
 
-    private Properties loadProperties() {
-        Properties prop = new Properties();
-        // Load from classpath
-        try (InputStream input = getClass().getClassLoader().getResourceAsStream(PROPERTIES_FILE)) {
-            if (input == null) {
-                System.err.println("Sorry, unable to find " + PROPERTIES_FILE);
-                return null;
-            }
-            prop.load(input);
-            return prop;
-        } catch (IOException e) {
-            e.printStackTrace();
-            return null;
-        }
+    public boolean isRegistered() {
+        return registered;
     }
 
-    private void registerClient(String keyManagerHost, String keyManagerPort, String registrationToken) {
+    private boolean registerClient(String keyManagerHost, String keyManagerPort, String registrationToken) {
         try {
             RegisterClientParameters.Builder builder = new RegisterClientParameters.Builder(keyManagerHost,
                     registrationToken.toCharArray());
@@ -110,9 +145,11 @@ public class CadpClient {
                     System.out.println("[CADP Status] Status: " + status + ", Message: " + message);
                 }
             });
+            return true;
         } catch (Exception e) {
             System.err.println("Error registering client: " + e.getMessage());
             e.printStackTrace();
+            return false;
         }
     }
 
@@ -123,14 +160,12 @@ public class CadpClient {
     public String enc(String policyName, String plainText) {
         if (plainText == null)
             return null;
-        try {
-            CipherTextData cipherTextData = CryptoManager.protect(plainText.getBytes(StandardCharsets.UTF_8),
-                    policyName);
-            return new String(cipherTextData.getCipherText(), StandardCharsets.UTF_8);
-        } catch (Exception e) {
-            e.printStackTrace();
+        CryptoBytes result = protect(policyName, plainText.getBytes(StandardCharsets.UTF_8));
+        if (!result.isOk()) {
+            System.err.println("CADP protect failed: " + result.getError());
             return null;
         }
+        return new String(result.getValue(), StandardCharsets.UTF_8);
     }
 
     public String dec(String cipherText) {
@@ -141,14 +176,282 @@ public class CadpClient {
         if (cipherText == null)
             return null;
         try {
-            CipherTextData cipherTextData = new CipherTextData();
-            cipherTextData.setCipherText(cipherText.getBytes(StandardCharsets.UTF_8));
-
-            byte[] revealedData = CryptoManager.reveal(cipherTextData, policyName, this.userName);
-            return new String(revealedData, StandardCharsets.UTF_8);
+            return DecryptCache.getInstance().get(policyName, this.userName, cipherText,
+                    () -> reveal(policyName, cipherText));
         } catch (Exception e) {
+            // DEC_ERRORS는 reveal(byte[])에서 집계
             e.printStackTrace();
             return null;
         }
     }
+
+    private String reveal(String policyName, String cipherText) {
+        CryptoBytes result = reveal(policyName, cipherText.getBytes(StandardCharsets.UTF_8));
+        if (!result.isOk()) {
+            throw new IllegalStateException(result.getError());
+        }
+        return new String(result.getValue(), StandardCharsets.UTF_8);
+    }
+
+    // --- 병렬 일괄 처리 (CADP는 키 다운로드 이후 로컬 CPU 작업이므로 코어 수만큼 나눠서 실행) ---
+
+    /**
+     * 입력 순서대로 항목별 복호화 결과를 반환합니다. (항목 실패는 해당 위치의 오류 결과로만 반영)
+     * 입력이 CADP_PARALLEL_THRESHOLD 건 미만이면 호출 스레드에서 바로 처리합니다.
+     */
+    public List<CryptoResult> decAll(List<String> cipherTexts) {
+        return decAll(this.protectionPolicyName, cipherTexts);
+    }
+
+    public List<CryptoResult> decAll(String policyName, List<String> cipherTexts) {
+        return runAll(cipherTexts, cipherText -> decOne(policyName, cipherText));
+    }
+
+    /**
+     * DecryptCache 를 거치지 않는 decAll (provider 처리량 비교용)
+     */
+    public List<CryptoResult> decAllUncached(List<String> cipherTexts) {
+        return runAll(cipherTexts, cipherText -> revealOne(this.protectionPolicyName, cipherText));
+    }
+
+    /**
+     * 입력 순서대로 항목별 암호화 결과를 반환합니다. (항목 실패는 해당 위치의 오류 결과로만 반영)
+     */
+    public List<CryptoResult> encAll(List<String> plainTexts) {
+        return encAll(this.protectionPolicyName, plainTexts);
+    }
+
+    public List<CryptoResult> encAll(String policyName, List<String> plainTexts) {
+        return runAll(plainTexts, plainText -> encOne(policyName, plainText));
+    }
+
+    private CryptoResult decOne(String policyName, String cipherText) {
+        if (cipherText == null)
+            return CryptoResult.error("입력 데이터는 null일 수 없습니다.");
+        try {
+            return CryptoResult.ok(DecryptCache.getInstance().get(policyName, this.userName, cipherText,
+                    () -> reveal(policyName, cipherText)));
+        } catch (Exception e) {
+            return CryptoResult.error(e.getMessage());
+        }
+    }
+
+    private CryptoResult revealOne(String policyName, String cipherText) {
+        if (cipherText == null)
+            return CryptoResult.error("입력 데이터는 null일 수 없습니다.");
+        CryptoBytes result = reveal(policyName, cipherText.getBytes(StandardCharsets.UTF_8));
+        return result.isOk() ? CryptoResult.ok(new String(result.getValue(), StandardCharsets.UTF_8))
+                : CryptoResult.error(result.getError());
+    }
+
+    private CryptoResult encOne(String policyName, String plainText) {
+        if (plainText == null)
+            return CryptoResult.error("입력 데이터는 null일 수 없습니다.");
+        CryptoBytes result = protect(policyName, plainText.getBytes(StandardCharsets.UTF_8));
+        return result.isOk() ? CryptoResult.ok(new String(result.getValue(), StandardCharsets.UTF_8))
+                : CryptoResult.error(result.getError());
+    }
+
+    private static List<CryptoResult> runAll(List<String> inputs, Function<String, CryptoResult> op) {
+        if (inputs == null || inputs.isEmpty())
+            return new ArrayList<>();
+
+        CryptoResult[] results = new CryptoResult[inputs.size()];
+        if (inputs.size() < PARALLEL_THRESHOLD || PARALLELISM < 2) {
+            for (int i = 0; i < results.length; i++) {
+                results[i] = applyIsolated(op, inputs.get(i));
+            }
+        } else {
+            // 인덱스 기반 접근이 느린 List(LinkedList 등)도 있으므로 배열로 한 번 복사
+            String[] values = inputs.toArray(new String[0]);
+            int chunk = Math.max(MIN_CHUNK, (values.length + PARALLELISM * 4 - 1) / (PARALLELISM * 4));
+            PARALLEL_POOL.invoke(new ChunkTask(values, results, op, 0, values.length, chunk));
+        }
+
+        List<CryptoResult> out = new ArrayList<>(results.length);
+        Collections.addAll(out, results);
+        return out;
+    }
+
+    /**
+     * 웹앱 종료 시 일괄 처리 풀 정리 (재배포 시 이전 클래스로더의 스레드가 남지 않도록)
+     */
+    public static void shutdownParallelPool() {
+        PARALLEL_POOL.shutdownNow();
+    }
+
+    // 한 항목의 예외가 나머지 항목 처리를 막지 않도록 해당 위치의 오류 결과로 변환
+    private static CryptoResult applyIsolated(Function<String, CryptoResult> op, String input) {
+        try {
+            return op.apply(input);
+        } catch (RuntimeException e) {
+            return CryptoResult.error(e.getMessage());
+        }
+    }
+
+    /**
+     * 연속 구간 단위로 나눠서 처리 (작업자별로 입력/결과 배열의 인접 구간만 다룸)
+     */
+    private static final class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final String[] inputs;
+        private final CryptoResult[] results;
+        private final transient Function<String, CryptoResult> op;
+        private final int from;
+        private final int to;
+        private final int chunk;
+
+        ChunkTask(String[] inputs, CryptoResult[] results, Function<String, CryptoResult> op, int from, int to,
+                int chunk) {
+            this.inputs = inputs;
+            this.results = results;
+            this.op = op;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                for (int i = from; i < to; i++) {
+                    results[i] = applyIsolated(op, inputs[i]);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ChunkTask(inputs, results, op, from, mid, chunk),
+                    new ChunkTask(inputs, results, op, mid, to, chunk));
+        }
+    }
+
+    // --- byte[] / ByteBuffer API (대량 작업용: 중간 String 없음, 복호화 캐시 미사용, 오류는 결과로 반환) ---
+
+    public CryptoBytes protect(byte[] plain) {
+        return protect(this.protectionPolicyName, plain);
+    }
+
+    /**
+     * 평문 바이트를 암호화합니다. 반환 값은 CADP가 만든 암호문 배열이며 복사하지 않습니다.
+     */
+    public CryptoBytes protect(String policyName, byte[] plain) {
+        if (plain == null)
+            return CryptoBytes.error("입력 데이터는 null일 수 없습니다.");
+        long start = System.nanoTime();
+        try {
+            CipherTextData cipherTextData = CryptoManager.protect(plain, policyName);
+            if (cipherTextData == null || cipherTextData.getCipherText() == null) {
+                ENC_ERRORS.increment();
+                return CryptoBytes.error(cipherTextData == null || cipherTextData.getErrorMessage() == null
+                        ? "protect failed" : cipherTextData.getErrorMessage());
+            }
+            return CryptoBytes.ok(cipherTextData.getCipherText());
+        } catch (Exception e) {
+            ENC_ERRORS.increment();
+            return CryptoBytes.error(e.toString());
+        } finally {
+            ENC_TIME.recordSince(start);
+        }
+    }
+
+    public CryptoBytes protect(ByteBuffer plain) {
+        return protect(this.protectionPolicyName, plain == null ? null : toArray(plain));
+    }
+
+    public CryptoBytes reveal(byte[] cipherText) {
+        return reveal(this.protectionPolicyName, cipherText);
+    }
+
+    /**
+     * 암호문 바이트를 복호화합니다. 입력 holder(CipherTextData)는 스레드별로 재사용합니다.
+     */
+    public CryptoBytes reveal(String policyName, byte[] cipherText) {
+        if (cipherText == null)
+            return CryptoBytes.error("입력 데이터는 null일 수 없습니다.");
+        CipherTextData holder = REVEAL_HOLDER.get();
+        holder.setCipherText(cipherText);
+        long start = System.nanoTime();
+        try {
+            byte[] revealed = CryptoManager.reveal(holder, policyName, this.userName);
+            if (revealed == null) {
+                DEC_ERRORS.increment();
+                return CryptoBytes.error(holder.getErrorMessage() != null ? holder.getErrorMessage() : "reveal failed");
+            }
+            return CryptoBytes.ok(revealed);
+        } catch (Exception e) {
+            DEC_ERRORS.increment();
+            return CryptoBytes.error(e.toString());
+        } finally {
+            DEC_TIME.recordSince(start);
+            // 다음 호출에 이전 값이 남지 않도록 (holder가 암호문 배열을 붙잡고 있지 않게)
+            holder.setCipherText(null);
+            holder.setNonce(null);
+            holder.setVersion(null);
+            holder.setErrorMessage(null);
+        }
+    }
+
+    public CryptoBytes reveal(ByteBuffer cipherText) {
+        return reveal(this.protectionPolicyName, cipherText == null ? null : toArray(cipherText));
+    }
+
+    /**
+     * 버퍼의 남은 바이트 (배열 전체를 감싼 heap 버퍼면 복사 없이 배열 그대로). 버퍼 position은 바꾸지 않음
+     */
+    private static byte[] toArray(ByteBuffer buffer) {
+        if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0
+                && buffer.remaining() == buffer.array().length) {
+            return buffer.array();
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    public String getProtectionPolicyName() {
+        return protectionPolicyName;
+    }
+
+    /**
+     * 평문을 꺼내지 않고 policyName의 현재 키 버전으로 재암호화합니다 (키 로테이션용).
+     * 입력 순서대로 항목별 결과를 반환합니다.
+     */
+    public List<CryptoResult> reprotect(List<String> cipherTexts, String policyName) {
+        CipherTextData[] input = new CipherTextData[cipherTexts.size()];
+        for (int i = 0; i < input.length; i++) {
+            input[i] = new CipherTextData();
+            if (cipherTexts.get(i) != null) {
+                input[i].setCipherText(cipherTexts.get(i).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        List<CryptoResult> results = new ArrayList<>(input.length);
+        long start = System.nanoTime();
+        try {
+            CipherTextData[] output = CryptoManager.reprotect(input, policyName);
+            for (int i = 0; i < input.length; i++) {
+                CipherTextData data = output != null && i < output.length ? output[i] : null;
+                if (cipherTexts.get(i) == null) {
+                    results.add(CryptoResult.error("입력 데이터는 null일 수 없습니다."));
+                } else if (data == null || data.getCipherText() == null || data.getErrorMessage() != null) {
+                    REPROTECT_ERRORS.increment();
+                    results.add(CryptoResult.error(data == null || data.getErrorMessage() == null
+                            ? "reprotect failed" : data.getErrorMessage()));
+                } else {
+                    results.add(CryptoResult.ok(new String(data.getCipherText(), StandardCharsets.UTF_8)));
+                }
+            }
+        } catch (Exception e) {
+            REPROTECT_ERRORS.increment();
+            e.printStackTrace();
+            results.clear();
+            for (int i = 0; i < input.length; i++) {
+                results.add(CryptoResult.error(e.getMessage()));
+            }
+        } finally {
+            REPROTECT_TIME.recordSince(start);
+        }
+        return results;
+    }
 }
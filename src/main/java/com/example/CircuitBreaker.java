@@ -0,0 +1,174 @@
+package com.example;
+
+/**
+ * 최근 호출 결과(개수 기준 window)로 upstream 상태를 판단하는 circuit breaker
+ *
+ * - CLOSED: 모든 호출 허용. window의 오류 비율 또는 느린 호출 비율이 임계값 이상이면 OPEN
+ *   (느린 호출 기준은 호출 종류마다 다를 수 있으므로 onSuccess 에서 호출별로 전달받음)
+ * - OPEN: openMillis 동안 호출을 바로 거절 (upstream을 기다리지 않고 실패)
+ * - HALF_OPEN: 시험 호출을 halfOpenCalls 개까지 허용. 모두 성공하면 CLOSED, 하나라도 실패하면 다시 OPEN
+ *   (연속으로 다시 OPEN될 때마다 차단 시간을 두 배로, 최대 maxOpenMillis 까지 늘림)
+ *
+ * 호출 한 번에 한 번씩만 잠금을 잡으므로 HTTP 호출 비용에 비해 무시할 수 있습니다.
+ */
+final class CircuitBreaker {
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int windowSize;
+    private final int minCalls;
+    private final int failureRatePercent;
+    private final int slowCallRatePercent;
+    private final long openNanos;
+    private final long maxOpenNanos;
+    private final int halfOpenCalls;
+
+    // window: 원형 버퍼 (결과가 기록된 호출만)
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int next;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private long currentOpenNanos;
+    private int probesStarted;
+    private int probesSucceeded;
+    private long openCount;
+
+    CircuitBreaker(int windowSize, int minCalls, int failureRatePercent, int slowCallRatePercent,
+            long openMillis, long maxOpenMillis, int halfOpenCalls) {
+        this.windowSize = windowSize;
+        this.minCalls = Math.min(minCalls, windowSize);
+        this.failureRatePercent = failureRatePercent;
+        this.slowCallRatePercent = slowCallRatePercent;
+        this.openNanos = openMillis * 1_000_000L;
+        this.maxOpenNanos = Math.max(openMillis, maxOpenMillis) * 1_000_000L;
+        this.currentOpenNanos = openNanos;
+        this.halfOpenCalls = halfOpenCalls;
+        this.failed = new boolean[windowSize];
+        this.slow = new boolean[windowSize];
+    }
+
+    /**
+     * 호출 허용 여부 (false면 upstream을 호출하지 말고 바로 실패 처리)
+     */
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < currentOpenNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probesStarted = 0;
+            probesSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted >= halfOpenCalls) {
+                return false;
+            }
+            probesStarted++;
+        }
+        return true;
+    }
+
+    synchronized void onSuccess(long elapsedNanos, long slowCallNanos) {
+        boolean isSlow = elapsedNanos > slowCallNanos;
+        if (state == State.HALF_OPEN) {
+            if (isSlow) {
+                open();
+            } else if (++probesSucceeded >= halfOpenCalls) {
+                close();
+            }
+            return;
+        }
+        if (state == State.CLOSED) {
+            record(false, isSlow);
+        }
+    }
+
+    synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        if (state == State.CLOSED) {
+            record(true, false);
+        }
+    }
+
+    /**
+     * 결과 없이 끝난 호출 (hedge에서 진 요청 취소 등): 시험 호출 자리만 반환
+     */
+    synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && probesStarted > probesSucceeded) {
+            probesStarted--;
+        }
+    }
+
+    /**
+     * 지금 호출하면 허용될지 여부 (상태를 바꾸지 않음, endpoint 선택용)
+     */
+    synchronized boolean isAvailable() {
+        switch (state) {
+        case CLOSED:
+            return true;
+        case OPEN:
+            return System.nanoTime() - openedAt >= currentOpenNanos;
+        default:
+            return probesStarted < halfOpenCalls;
+        }
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    synchronized long getOpenCount() {
+        return openCount;
+    }
+
+    private void record(boolean isFailure, boolean isSlow) {
+        if (recorded == windowSize) {
+            if (failed[next])
+                failures--;
+            if (slow[next])
+                slowCalls--;
+        } else {
+            recorded++;
+        }
+        failed[next] = isFailure;
+        slow[next] = isSlow;
+        if (isFailure)
+            failures++;
+        if (isSlow)
+            slowCalls++;
+        next = (next + 1) % windowSize;
+
+        if (recorded >= minCalls
+                && (failures * 100 >= failureRatePercent * recorded || slowCalls * 100 >= slowCallRatePercent * recorded)) {
+            open();
+        }
+    }
+
+    private void open() {
+        if (state == State.HALF_OPEN) {
+            currentOpenNanos = Math.min(maxOpenNanos, currentOpenNanos * 2);
+        }
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+        openCount++;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        currentOpenNanos = openNanos;
+        next = 0;
+        recorded = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+}
@@ -1,14 +1,33 @@
 package com.example;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonObject;
-import java.util.HashMap;
-import java.util.Map;
+import com.example.metrics.Counter;
+import com.example.metrics.Histogram;
+import com.example.metrics.Metrics;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
@@ -17,23 +36,105 @@ import java.nio.charset.StandardCharsets;
 import java.security.cert.X509Certificate;
 import java.time.Duration;
 import java.util.Properties;
-import java.io.InputStream;
 
 public class CrdpClient {
 
-    private String baseUrl;
+    private CrdpEndpoint[] endpoints;
     private String policy;
     private String token;
     private String user;
     private boolean useTls;
+    private int batchSize;
+    private boolean bulkEnabled;
+    private Semaphore inFlight;
 
     private HttpClient httpClient;
-    private final Gson gson;
+    private HttpClient.Version httpVersion;
+    private String[] requestPrefixes;
 
-    private static final int TIMEOUT = 10; // 10 seconds
+    // 호출 deadline / hedge / circuit breaker
+    private long timeoutMillis;
+    private long bulkTimeoutMillis;
+    // Op.ordinal() 별 느린 호출 기준 (bulk 는 deadline 비율만큼 늘림)
+    private long[] slowCallNanos;
+    private boolean hedgeEnabled;
+    private long hedgeMinDelayNanos;
+    private LatencyTracker[] latency;
+    private ScheduledFuture<?> healthCheckTask;
+
+    private static final Counter CIRCUIT_REJECTED = Metrics.counter("app_crdp_circuit_rejected_total",
+            "CRDP calls rejected because every endpoint was ejected");
+
+    private static final int DEFAULT_TIMEOUT_MS = 2000;
+    private static final int DEFAULT_BULK_TIMEOUT_MS = 5000;
+    private static final int DEFAULT_HEDGE_PERCENTILE = 95;
+    private static final int DEFAULT_HEDGE_MIN_DELAY_MS = 20;
+    private static final int DEFAULT_BREAKER_FAILURE_RATE = 50;
+    private static final int DEFAULT_BREAKER_SLOW_CALL_RATE = 80;
+    private static final int DEFAULT_BREAKER_OPEN_MS = 5000;
+    private static final int DEFAULT_BREAKER_MAX_OPEN_MS = 60000;
+    private static final int DEFAULT_HEALTH_CHECK_MS = 5000;
+    private static final int BREAKER_WINDOW = 50;
+    private static final int BREAKER_MIN_CALLS = 20;
+    private static final int BREAKER_HALF_OPEN_CALLS = 3;
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    private static final int DEFAULT_MAX_IN_FLIGHT = 16;
+
+    // hedge / deadline / health check 예약용 (요청 전송 자체는 HttpClient가 비동기로 처리하므로 스레드 하나로 충분)
+    private static final ScheduledThreadPoolExecutor TIMER = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread t = new Thread(r, "crdp-timer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    static {
+        TIMER.setRemoveOnCancelPolicy(true);
+    }
+
+    // JDK 16 미만에서는 sendAsync future 를 cancel 해도 HTTP 교환이 중단되지 않음 (응답만 버려짐).
+    // 이 경우 진/시간 초과된 요청을 취소하지 않고 실제로 끝날 때 in-flight permit 과 endpoint 슬롯을 반환
+    private static final boolean CANCEL_ABORTS_EXCHANGE = Runtime.version().feature() >= 16;
+
+    // 요청 본문 조립용 (호출마다 새 StringBuilder를 만들지 않음)
+    private static final ThreadLocal<StringBuilder> REQUEST_BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    private static final String PROPERTIES_FILE = "crdp.properties";
 
     private static volatile CrdpClient instance;
 
+    /**
+     * CRDP REST 호출 종류 (경로 + 요청 값 필드 + 호출별 메트릭)
+     */
+    private enum Op {
+        PROTECT("/v1/protect", "data", "enc", false),
+        REVEAL("/v1/reveal", "protected_data", "dec", false),
+        PROTECT_BULK("/v1/protectbulk", "data_array", "enc_bulk", true),
+        REVEAL_BULK("/v1/revealbulk", "protected_data_array", "dec_bulk", true);
+
+        final String path;
+        final String valueField;
+        final boolean bulk;
+        final Histogram callTime;
+        final Counter errors;
+        final Counter hedges;
+        final Counter hedgeWins;
+        final Counter failovers;
+
+        Op(String path, String valueField, String label, boolean bulk) {
+            this.path = path;
+            this.valueField = valueField;
+            this.bulk = bulk;
+            this.callTime = Metrics.histogram("app_crypto_call_seconds",
+                    "Crypto provider call time (per value for CADP, per HTTP call for CRDP)", "provider", "crdp", "op", label);
+            this.errors = Metrics.counter("app_crypto_errors_total", "Crypto provider errors", "provider", "crdp", "op", label);
+            this.hedges = Metrics.counter("app_crdp_hedged_requests_total", "CRDP hedge requests sent", "op", label);
+            this.hedgeWins = Metrics.counter("app_crdp_hedge_wins_total",
+                    "CRDP calls answered by the hedge request first", "op", label);
+            this.failovers = Metrics.counter("app_crdp_failovers_total",
+                    "CRDP requests resent to another endpoint after a connection error or 5xx", "op", label);
+        }
+    }
+
     // Singleton getInstance
     public static CrdpClient getInstance() {
         if (instance == null) {
@@ -51,54 +152,140 @@ public class CrdpClient {
      * Loads configuration and initializes the client
      */
     private CrdpClient() {
-        this.gson = new Gson();
-        initialize();
+        // crdp.properties 는 선택 사항 (CRDP_* 환경 변수만으로도 설정 가능)
+        this(Env.classpathProperties(PROPERTIES_FILE));
     }
 
-    private void initialize() {
-        Properties props = new Properties();
-        try (InputStream is = CrdpClient.class.getClassLoader().getResourceAsStream("crdp.properties")) {
-            if (is == null) {
-                throw new RuntimeException("Configuration file 'crdp.properties' not found in classpath");
-            }
-            props.load(is);
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to load crdp.properties", e);
-        }
+    private CrdpClient(Properties props) {
+        initialize(props);
+    }
+
+    /**
+     * 싱글톤과 별개로 주어진 설정(crdp.properties 형식)으로 클라이언트를 생성합니다.
+     * 벤치마크 / 로컬 테스트 서버 연결용이며, CRDP_* 환경 변수가 있으면 그 값이 우선합니다.
+     */
+    public static CrdpClient create(Properties props) {
+        return new CrdpClient(props);
+    }
 
-        String endpoint = System.getenv("CRDP_ENDPOINT");
-        if (endpoint == null || endpoint.isEmpty()) {
-            endpoint = props.getProperty("crdp_endpoint");
+    /**
+     * 이 클라이언트의 주기적 health check 를 멈춥니다. (create 로 만든 클라이언트를 다 쓴 뒤)
+     */
+    public void close() {
+        if (healthCheckTask != null) {
+            healthCheckTask.cancel(false);
         }
+    }
 
-        String tlsStr = System.getenv("CRDP_TLS");
-        if (tlsStr != null && !tlsStr.isEmpty()) {
-            this.useTls = Boolean.parseBoolean(tlsStr);
-        } else {
-            this.useTls = Boolean.parseBoolean(props.getProperty("crdp_tls", "true"));
+    /**
+     * 싱글톤의 health check 와 hedge / deadline 예약용 TIMER 스레드를 종료합니다. (웹앱 종료 시)
+     * 이후에는 이 클래스로 CRDP 를 호출할 수 없습니다.
+     */
+    public static void shutdown() {
+        CrdpClient current = instance;
+        if (current != null) {
+            current.close();
         }
+        TIMER.shutdownNow();
+    }
 
-        this.policy = System.getenv("CRDP_POLICY");
-        if (this.policy == null || this.policy.isEmpty()) {
-            this.policy = props.getProperty("crdp_policy");
+    /**
+     * CRDP endpoint 가 설정되어 있는지 (CRDP_ENDPOINT 또는 crdp.properties 의 crdp_endpoint).
+     * 클라이언트를 만들지 않고 확인합니다.
+     */
+    public static boolean isConfigured() {
+        return Env.get(Env.classpathProperties(PROPERTIES_FILE), "CRDP_ENDPOINT", "crdp_endpoint", null) != null;
+    }
+
+    private void initialize(Properties props) {
+
+        String endpoint = Env.get(props, "CRDP_ENDPOINT", "crdp_endpoint", null);
+        this.useTls = Env.getBoolean(props, "CRDP_TLS", "crdp_tls", true);
+        this.policy = Env.get(props, "CRDP_POLICY", "crdp_policy", null);
+        this.user = Env.get(props, "CRDP_USER_NAME", "crdp_user_name", null);
+        this.token = Env.get(props, "CRDP_JWT", "crdp_jwt", null);
+        this.batchSize = intSetting(props, "CRDP_BATCH_SIZE", "crdp_batch_size", DEFAULT_BATCH_SIZE);
+        this.bulkEnabled = Env.getBoolean(props, "CRDP_BULK_ENABLED", "crdp_bulk_enabled", true);
+        int maxInFlight = intSetting(props, "CRDP_MAX_IN_FLIGHT", "crdp_max_in_flight", DEFAULT_MAX_IN_FLIGHT);
+
+        // HTTP/2: 하나의 연결에서 요청을 multiplexing (서버가 지원하지 않으면 HTTP/1.1로 자동 전환)
+        boolean http2 = Env.getBoolean(props, "CRDP_HTTP2", "crdp_http2", false);
+        this.httpVersion = http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1;
+        if (http2) {
+            // 동시 stream 수 = in-flight 창 크기
+            maxInFlight = intSetting(props, "CRDP_HTTP2_MAX_STREAMS", "crdp_http2_max_streams", maxInFlight);
         }
 
-        this.user = System.getenv("CRDP_USER_NAME");
-        if (this.user == null || this.user.isEmpty()) {
-            this.user = props.getProperty("crdp_user_name");
+        // 유휴 연결 유지 시간 (JVM 전역 설정이므로 -D 옵션이 없을 때만, 첫 HttpClient 생성 전에 적용됨)
+        String keepAlive = Env.get(props, "CRDP_KEEPALIVE_SECONDS", "crdp_keepalive_seconds", null);
+        if (keepAlive != null && !keepAlive.isEmpty()) {
+            if (System.getProperty("jdk.httpclient.keepalive.timeout") == null) {
+                System.setProperty("jdk.httpclient.keepalive.timeout", keepAlive.trim());
+            }
+            if (System.getProperty("jdk.httpclient.keepalive.timeout.h2") == null) {
+                System.setProperty("jdk.httpclient.keepalive.timeout.h2", keepAlive.trim());
+            }
         }
 
-        this.token = System.getenv("CRDP_JWT");
-        if (this.token == null || this.token.isEmpty()) {
-            this.token = props.getProperty("crdp_jwt");
+        // 호출 deadline (hedge 포함 호출 전체 기준)
+        this.timeoutMillis = intSetting(props, "CRDP_TIMEOUT_MS", "crdp_timeout_ms", DEFAULT_TIMEOUT_MS);
+        this.bulkTimeoutMillis = intSetting(props, "CRDP_BULK_TIMEOUT_MS", "crdp_bulk_timeout_ms", DEFAULT_BULK_TIMEOUT_MS);
+
+        // hedge: 응답이 최근 p95보다 늦으면 같은 요청을 한 번 더 보내고 먼저 온 응답 사용
+        this.hedgeEnabled = Env.getBoolean(props, "CRDP_HEDGE_ENABLED", "crdp_hedge_enabled", true);
+        int hedgePercentile = Math.min(99,
+                intSetting(props, "CRDP_HEDGE_PERCENTILE", "crdp_hedge_percentile", DEFAULT_HEDGE_PERCENTILE));
+        this.hedgeMinDelayNanos = intSetting(props, "CRDP_HEDGE_MIN_DELAY_MS", "crdp_hedge_min_delay_ms",
+                DEFAULT_HEDGE_MIN_DELAY_MS) * 1_000_000L;
+        this.latency = new LatencyTracker[Op.values().length];
+        for (int i = 0; i < latency.length; i++) {
+            latency[i] = new LatencyTracker(512, hedgePercentile, 32);
         }
 
         if (endpoint == null || policy == null || token == null) {
             throw new RuntimeException("Missing required CRDP configuration in crdp.properties");
         }
 
+        // CRDP_ENDPOINT: "host:port" 또는 "host1:port,host2:port,..." (복제본별로 요청 분산)
+        List<String> addresses = new ArrayList<>();
+        for (String address : endpoint.split(",")) {
+            if (!address.trim().isEmpty()) {
+                addresses.add(address.trim());
+            }
+        }
+        if (addresses.isEmpty()) {
+            throw new RuntimeException("Missing required CRDP configuration in crdp.properties");
+        }
+
+        // circuit breaker (endpoint별): 오류/느린 호출 비율이 높으면 해당 endpoint를 일정 시간 제외
+        boolean breakerEnabled = Env.getBoolean(props, "CRDP_BREAKER_ENABLED", "crdp_breaker_enabled", true);
+        int failureRate = Math.min(100, intSetting(props, "CRDP_BREAKER_FAILURE_RATE", "crdp_breaker_failure_rate",
+                DEFAULT_BREAKER_FAILURE_RATE));
+        int slowCallRate = Math.min(100, intSetting(props, "CRDP_BREAKER_SLOW_CALL_RATE", "crdp_breaker_slow_call_rate",
+                DEFAULT_BREAKER_SLOW_CALL_RATE));
+        int slowCallMillis = intSetting(props, "CRDP_BREAKER_SLOW_CALL_MS", "crdp_breaker_slow_call_ms", (int) (timeoutMillis / 2));
+        // 기준값은 단건 호출용. endpoint breaker를 모든 호출이 공유하므로 bulk 호출은 deadline 비율로 늘려서
+        // 정상적으로 오래 걸리는 bulk 호출 때문에 건강한 endpoint가 제외되지 않도록 함
+        this.slowCallNanos = new long[Op.values().length];
+        for (Op op : Op.values()) {
+            long millis = op.bulk ? slowCallMillis * bulkTimeoutMillis / Math.max(1, timeoutMillis) : slowCallMillis;
+            slowCallNanos[op.ordinal()] = millis * 1_000_000L;
+        }
+        int openMillis = intSetting(props, "CRDP_BREAKER_OPEN_MS", "crdp_breaker_open_ms", DEFAULT_BREAKER_OPEN_MS);
+        int maxOpenMillis = intSetting(props, "CRDP_BREAKER_MAX_OPEN_MS", "crdp_breaker_max_open_ms", DEFAULT_BREAKER_MAX_OPEN_MS);
+
         String protocol = useTls ? "https" : "http";
-        this.baseUrl = protocol + "://" + endpoint;
+        this.endpoints = new CrdpEndpoint[addresses.size()];
+        for (int i = 0; i < endpoints.length; i++) {
+            CircuitBreaker breaker = breakerEnabled
+                    ? new CircuitBreaker(BREAKER_WINDOW, BREAKER_MIN_CALLS, failureRate, slowCallRate, openMillis,
+                            maxOpenMillis, BREAKER_HALF_OPEN_CALLS)
+                    : null;
+            endpoints[i] = new CrdpEndpoint(addresses.get(i), protocol + "://" + addresses.get(i), Op.values().length, breaker);
+        }
+
+        // CRDP_MAX_IN_FLIGHT 는 endpoint 하나 기준 (복제본 수만큼 처리량이 늘어나도록)
+        this.inFlight = new Semaphore(maxInFlight * endpoints.length);
 
         try {
             // 시스템 속성으로 호스트네임 검증 비활성화 (JDK 11 HttpClient workaround)
@@ -111,37 +298,131 @@ public class CrdpClient {
             sslParams.setEndpointIdentificationAlgorithm(null);
 
             this.httpClient = HttpClient.newBuilder()
+                    .version(httpVersion)
                     .sslContext(sslContext)
                     .sslParameters(sslParams)
-                    .connectTimeout(Duration.ofSeconds(TIMEOUT))
+                    .connectTimeout(Duration.ofMillis(timeoutMillis))
                     .build();
 
+            // 호출마다 바뀌지 않는 부분(URI, 헤더, policy/username JSON)은 미리 만들어 둠
+            Op[] ops = Op.values();
+            this.requestPrefixes = new String[ops.length];
+            String authorization = "Bearer " + token;
+            for (Op op : ops) {
+                requestPrefixes[op.ordinal()] = buildRequestPrefix(op, policy);
+                for (CrdpEndpoint target : endpoints) {
+                    target.requestTemplates[op.ordinal()] = HttpRequest.newBuilder()
+                            .uri(URI.create(target.baseUrl + op.path))
+                            .header("Content-Type", "application/json")
+                            .header("Authorization", authorization)
+                            .timeout(Duration.ofMillis(op.bulk ? bulkTimeoutMillis : timeoutMillis));
+                }
+            }
+
             // Auto Warmup
             warmup();
 
+            // 제외된 endpoint는 트래픽이 없어도 주기적으로 시험 호출해서 복구 여부 확인
+            long healthCheckMillis = intSetting(props, "CRDP_HEALTH_CHECK_MS", "crdp_health_check_ms", DEFAULT_HEALTH_CHECK_MS);
+            if (breakerEnabled) {
+                healthCheckTask = TIMER.scheduleWithFixedDelay(this::healthCheck, healthCheckMillis, healthCheckMillis,
+                        TimeUnit.MILLISECONDS);
+            }
+
         } catch (Exception e) {
             throw new RuntimeException("HttpClient 초기화 실패", e);
         }
     }
 
+    /** 양수 설정값 (0 이하는 1로) */
+    private static int intSetting(Properties props, String envName, String propName, int defaultValue) {
+        return Math.max(1, Env.getInt(props, envName, propName, defaultValue));
+    }
+
     public boolean isUseTls() {
         return useTls;
     }
 
+    public HttpClient.Version getHttpVersion() {
+        return httpVersion;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public boolean isBulkEnabled() {
+        return bulkEnabled;
+    }
+
+    public String getPolicy() {
+        return policy;
+    }
+
     /**
-     * 연결 워밍업 (Warm-up)
+     * 연결 워밍업 (Warm-up), endpoint마다 한 번씩
      */
     public void warmup() {
-        try {
-            String url = baseUrl + "/v1/protect";
-            Map<String, String> request = new HashMap<>();
-            request.put("protection_policy_name", policy);
-            request.put("data", "WARMUP");
-            post(url, request);
-        } catch (Exception e) {
-            // 워밍업 실패는 무시하지만 로깅은 남김
-            System.out.println("CRDP Warmup failed (ignoring): " + e.getMessage());
+        warmup(1);
+    }
+
+    /**
+     * endpoint마다 시험 호출을 connections 건씩 동시에 보내서 연결을 미리 열어 둡니다.
+     * (HTTP/1.1은 동시 요청 수만큼 연결이 생기고 유휴 상태로 재사용됨, HTTP/2는 연결 하나)
+     * endpoint당 in-flight 상한을 넘지 않으며, 성공한 호출 수를 반환합니다.
+     */
+    public int warmup(int connections) {
+        int perEndpoint = Math.max(1, Math.min(connections, inFlight.availablePermits() / endpoints.length));
+        List<CompletableFuture<String>> probes = new ArrayList<>(endpoints.length * perEndpoint);
+        for (CrdpEndpoint target : endpoints) {
+            for (int n = 0; n < perEndpoint; n++) {
+                probes.add(probe(target, true));
+            }
+        }
+        int succeeded = 0;
+        for (int i = 0; i < probes.size(); i++) {
+            try {
+                probes.get(i).join();
+                succeeded++;
+            } catch (CompletionException e) {
+                // 워밍업 실패는 무시하지만 로깅은 남김
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                System.out.println("CRDP Warmup failed for " + endpoints[i / perEndpoint].address + " (ignoring): "
+                        + cause.getMessage());
+            }
         }
+        return succeeded;
+    }
+
+    private void healthCheck() {
+        for (CrdpEndpoint target : endpoints) {
+            // 제외 시간이 끝난 endpoint만 (정상 endpoint는 실제 트래픽 결과로 판단)
+            if (!target.isClosed() && target.isAvailable()) {
+                probe(target, false);
+            }
+        }
+    }
+
+    /**
+     * 지정한 endpoint로 시험 호출 (hedge 없음, 결과는 해당 endpoint의 circuit breaker에 반영)
+     */
+    /**
+     * 시험 호출 하나. wait=false 이면 in-flight 상한에 도달했을 때 기다리지 않고 건너뜀
+     * (health check 는 hedge / deadline 과 같은 TIMER 스레드에서 실행되므로 절대 block 하면 안 됨)
+     */
+    private CompletableFuture<String> probe(CrdpEndpoint target, boolean wait) {
+        if (!target.tryAcquire()) {
+            return CompletableFuture.failedFuture(new RuntimeException("CRDP endpoint 제외 중: " + target.address));
+        }
+        if (wait) {
+            inFlight.acquireUninterruptibly();
+        } else if (!inFlight.tryAcquire()) {
+            target.onIgnored();
+            return CompletableFuture.failedFuture(new RuntimeException("CRDP in-flight 상한 도달, 시험 호출 생략"));
+        }
+        HedgedCall<String> call = new HedgedCall<>(Op.PROTECT);
+        call.launch(target, singleBody(Op.PROTECT, policy, "WARMUP"), this::readSingle, false);
+        return call.result;
     }
 
     /**
@@ -151,15 +432,7 @@ public class CrdpClient {
         if (plaintext == null)
             throw new IllegalArgumentException("입력 데이터는 null일 수 없습니다.");
 
-        String url = baseUrl + "/v1/protect";
-        Map<String, String> request = new HashMap<>();
-        request.put("protection_policy_name", policy);
-        request.put("data", plaintext);
-
-        String responseJson = post(url, request);
-        JsonObject response = gson.fromJson(responseJson, JsonObject.class);
-
-        return response.get("protected_data").getAsString();
+        return post(Op.PROTECT, singleBody(Op.PROTECT, policy, plaintext), this::readSingle);
     }
 
     /**
@@ -169,37 +442,698 @@ public class CrdpClient {
         if (encrypted == null)
             throw new IllegalArgumentException("입력 데이터는 null일 수 없습니다.");
 
-        String url = baseUrl + "/v1/reveal";
-        Map<String, String> request = new HashMap<>();
-        request.put("protection_policy_name", policy);
-        request.put("protected_data", encrypted);
-        request.put("username", user);
+        return DecryptCache.getInstance().get(policy, user, encrypted, () -> reveal(encrypted));
+    }
 
-        String responseJson = post(url, request);
-        JsonObject response = gson.fromJson(responseJson, JsonObject.class);
+    /**
+     * DecryptCache 를 거치지 않고 항상 CRDP 를 호출하는 복호화 (provider 처리량 비교용)
+     */
+    public String decUncached(String encrypted) throws Exception {
+        if (encrypted == null)
+            throw new IllegalArgumentException("입력 데이터는 null일 수 없습니다.");
 
-        return response.get("data").getAsString();
+        return reveal(encrypted);
     }
 
-    private String post(String url, Object requestBody) throws Exception {
-        String jsonBody = gson.toJson(requestBody);
+    private String reveal(String encrypted) throws Exception {
+        return post(Op.REVEAL, singleBody(Op.REVEAL, policy, encrypted), this::readSingle);
+    }
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .header("Content-Type", "application/json")
-                .header("Authorization", "Bearer " + token)
-                .timeout(Duration.ofSeconds(TIMEOUT))
-                .POST(HttpRequest.BodyPublishers.ofString(jsonBody, StandardCharsets.UTF_8))
-                .build();
+    /**
+     * 비동기 암호화 (Protect)
+     * 동시 요청 수가 CRDP_MAX_IN_FLIGHT에 도달하면 호출 스레드에서 대기합니다.
+     */
+    public CompletableFuture<String> encAsync(String plaintext) {
+        if (plaintext == null)
+            return CompletableFuture.failedFuture(new IllegalArgumentException("입력 데이터는 null일 수 없습니다."));
+
+        return postAsync(Op.PROTECT, singleBody(Op.PROTECT, policy, plaintext), this::readSingle);
+    }
 
-        HttpResponse<String> response = httpClient.send(request,
-                HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+    /**
+     * 비동기 복호화 (Reveal)
+     * 동시 요청 수가 CRDP_MAX_IN_FLIGHT에 도달하면 호출 스레드에서 대기합니다.
+     */
+    public CompletableFuture<String> decAsync(String encrypted) {
+        if (encrypted == null)
+            return CompletableFuture.failedFuture(new IllegalArgumentException("입력 데이터는 null일 수 없습니다."));
 
-        if (response.statusCode() >= 400) {
-            throw new RuntimeException("CRDP 서버 오류 (HTTP " + response.statusCode() + "): " + response.body());
+        // 같은 ciphertext를 다른 요청이 복호화 중이면 그 결과를 함께 사용
+        return DecryptCache.getInstance().getAsync(policy, user, encrypted,
+                () -> postAsync(Op.REVEAL, singleBody(Op.REVEAL, policy, encrypted), this::readSingle));
+    }
+
+    /**
+     * DecryptCache 를 거치지 않는 비동기 복호화 (provider 처리량 비교용)
+     */
+    public CompletableFuture<String> decAsyncUncached(String encrypted) {
+        if (encrypted == null)
+            return CompletableFuture.failedFuture(new IllegalArgumentException("입력 데이터는 null일 수 없습니다."));
+
+        return postAsync(Op.REVEAL, singleBody(Op.REVEAL, policy, encrypted), this::readSingle);
+    }
+
+    /**
+     * 페이지 단위 복호화
+     * 각 항목을 decAsync로 동시에 요청하고, 입력(행) 순서대로 결과를 모읍니다.
+     */
+    public List<CryptoResult> decPage(List<String> encrypted) {
+        if (encrypted == null || encrypted.isEmpty())
+            return Collections.emptyList();
+
+        List<CompletableFuture<String>> futures = new ArrayList<>(encrypted.size());
+        for (String value : encrypted) {
+            futures.add(decAsync(value));
+        }
+
+        List<CryptoResult> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<String> future : futures) {
+            try {
+                results.add(CryptoResult.ok(future.join()));
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                results.add(CryptoResult.error(cause.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 대량 암호화 (Bulk Protect)
+     * 입력 순서대로 항목별 결과를 반환하며, batchSize 단위로 나누어 호출합니다.
+     */
+    public List<CryptoResult> encBatch(List<String> plaintexts) {
+        return bulk(plaintexts, false, policy, false);
+    }
+
+    /**
+     * 지정한 policy로 대량 암호화 (키/정책 로테이션용)
+     */
+    public List<CryptoResult> encBatch(List<String> plaintexts, String policyName) {
+        return bulk(plaintexts, false, policyName, false);
+    }
+
+    /**
+     * 대량 복호화 (Bulk Reveal)
+     * 입력 순서대로 항목별 결과를 반환하며, batchSize 단위로 나누어 호출합니다.
+     */
+    public List<CryptoResult> decBatch(List<String> encrypted) {
+        return bulk(encrypted, true, policy, true);
+    }
+
+    /**
+     * DecryptCache 를 거치지 않는 대량 복호화 (provider 처리량 비교용)
+     */
+    public List<CryptoResult> decBatchUncached(List<String> encrypted) {
+        return bulk(encrypted, true, policy, false);
+    }
+
+    /**
+     * 지정한 policy로 DecryptCache 를 거치지 않고 대량 복호화 (키/정책 로테이션용)
+     * 재암호화할 평문이 캐시에 남거나, 캐시된 값이 로테이션 결과를 가리지 않도록 항상 CRDP를 호출합니다.
+     */
+    public List<CryptoResult> decBatchUncached(List<String> encrypted, String policyName) {
+        return bulk(encrypted, true, policyName, false);
+    }
+
+    private List<CryptoResult> bulk(List<String> inputs, boolean reveal, String policy, boolean cached) {
+        if (inputs == null || inputs.isEmpty())
+            return Collections.emptyList();
+
+        DecryptCache cache = reveal && cached ? DecryptCache.getInstance() : null;
+        CryptoResult[] results = new CryptoResult[inputs.size()];
+        // 캐시 사용 시 항목별 상태 (hit / 다른 호출이 가져오는 중 / 이 호출이 가져옴)
+        DecryptCache.Pending[] pending = cache != null && cache.isEnabled()
+                ? new DecryptCache.Pending[inputs.size()] : null;
+        List<Integer> chunk = new ArrayList<>(Math.min(batchSize, inputs.size()));
+        try {
+            for (int i = 0; i < inputs.size(); i++) {
+                if (inputs.get(i) == null) {
+                    results[i] = CryptoResult.error("입력 데이터는 null일 수 없습니다.");
+                    continue;
+                }
+                if (pending != null) {
+                    // 캐시 hit 와 다른 요청이 복호화 중인 항목은 upstream으로 보내지 않음
+                    pending[i] = cache.begin(policy, user, inputs.get(i));
+                    if (!pending[i].isOwner()) {
+                        continue;
+                    }
+                }
+                chunk.add(i);
+                if (chunk.size() == batchSize) {
+                    bulkChunk(inputs, chunk, reveal, policy, results, pending);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                bulkChunk(inputs, chunk, reveal, policy, results, pending);
+            }
+        } finally {
+            if (pending != null) {
+                // 예외로 중단된 경우에도 이 호출이 맡은 항목을 기다리는 다른 요청이 멈추지 않도록
+                for (DecryptCache.Pending item : pending) {
+                    if (item != null && item.isOwner() && !item.getFuture().isDone()) {
+                        cache.fail(item, new IllegalStateException("CRDP bulk 처리 중단"));
+                    }
+                }
+            }
+        }
+        if (pending != null) {
+            // 자기 항목을 모두 끝낸 뒤에 다른 호출의 결과를 기다림 (서로 기다리는 교착 없음)
+            for (int i = 0; i < pending.length; i++) {
+                if (pending[i] != null && !pending[i].isOwner()) {
+                    try {
+                        results[i] = CryptoResult.ok(pending[i].getFuture().join());
+                    } catch (CompletionException | CancellationException e) {
+                        Throwable cause = e.getCause() != null ? e.getCause() : e;
+                        results[i] = CryptoResult.error(cause.getMessage());
+                    }
+                }
+            }
+        }
+
+        List<CryptoResult> out = new ArrayList<>(results.length);
+        Collections.addAll(out, results);
+        return out;
+    }
+
+    private void bulkChunk(List<String> inputs, List<Integer> indexes, boolean reveal, String policy,
+            CryptoResult[] results, DecryptCache.Pending[] pending) {
+        Op op = reveal ? Op.REVEAL_BULK : Op.PROTECT_BULK;
+        StringBuilder body = requestPrefix(op, policy);
+        for (int i = 0; i < indexes.size(); i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            if (reveal) {
+                body.append("{\"protected_data\":");
+                appendJsonString(body, inputs.get(indexes.get(i)));
+                body.append('}');
+            } else {
+                appendJsonString(body, inputs.get(indexes.get(i)));
+            }
+        }
+        body.append("]}");
+
+        List<CryptoResult> items;
+        try {
+            items = post(op, body.toString().getBytes(StandardCharsets.UTF_8),
+                    reader -> readBulk(reader, reveal ? "data_array" : "protected_data_array",
+                            reveal ? "data" : "protected_data"));
+        } catch (Exception e) {
+            for (int idx : indexes) {
+                results[idx] = CryptoResult.error(e.getMessage());
+                if (pending != null) {
+                    DecryptCache.getInstance().fail(pending[idx], e);
+                }
+            }
+            return;
+        }
+
+        for (int i = 0; i < indexes.size(); i++) {
+            int idx = indexes.get(i);
+            CryptoResult item = i < items.size() ? items.get(i) : CryptoResult.error("CRDP bulk 응답 항목 누락");
+            results[idx] = item;
+            if (!item.isOk()) {
+                op.errors.increment();
+            }
+            if (pending != null) {
+                if (item.isOk()) {
+                    DecryptCache.getInstance().finish(pending[idx], item.getValue());
+                } else {
+                    DecryptCache.getInstance().fail(pending[idx], new RuntimeException(item.getError()));
+                }
+            }
+        }
+    }
+
+    // --- Request encoding (정책/사용자 부분은 미리 만들어 둔 prefix 재사용) ---
+
+    private byte[] singleBody(Op op, String policy, String value) {
+        StringBuilder body = requestPrefix(op, policy);
+        appendJsonString(body, value);
+        body.append('}');
+        return body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * {"protection_policy_name":...,("username":...,)"data": 처럼 값 바로 앞까지 채운 StringBuilder
+     */
+    private StringBuilder requestPrefix(Op op, String policy) {
+        String prefix = policy.equals(this.policy) ? requestPrefixes[op.ordinal()] : buildRequestPrefix(op, policy);
+        StringBuilder sb = REQUEST_BUFFER.get();
+        sb.setLength(0);
+        return sb.append(prefix);
+    }
+
+    private String buildRequestPrefix(Op op, String policy) {
+        StringBuilder sb = new StringBuilder(96).append("{\"protection_policy_name\":");
+        appendJsonString(sb, policy);
+        if ((op == Op.REVEAL || op == Op.REVEAL_BULK) && user != null) {
+            sb.append(",\"username\":");
+            appendJsonString(sb, user);
+        }
+        sb.append(',').append('"').append(op.valueField).append("\":");
+        if (op == Op.PROTECT_BULK || op == Op.REVEAL_BULK) {
+            sb.append('[');
+        }
+        return sb.toString();
+    }
+
+    private static void appendJsonString(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+
+    // --- Response parsing (JsonObject 트리를 만들지 않고 필요한 필드만 읽음) ---
+
+    private interface ResponseReader<T> {
+        T read(JsonReader reader) throws IOException;
+    }
+
+    private String readSingle(JsonReader reader) throws IOException {
+        String value = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (("protected_data".equals(name) || "data".equals(name)) && reader.peek() == JsonToken.STRING) {
+                value = reader.nextString();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (value == null) {
+            throw new IllegalStateException("CRDP 응답 형식 오류");
+        }
+        return value;
+    }
+
+    private static List<CryptoResult> readBulk(JsonReader reader, String arrayField, String valueField)
+            throws IOException {
+        List<CryptoResult> items = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!arrayField.equals(reader.nextName()) || reader.peek() != JsonToken.BEGIN_ARRAY) {
+                reader.skipValue();
+                continue;
+            }
+            items = new ArrayList<>();
+            reader.beginArray();
+            while (reader.hasNext()) {
+                items.add(readBulkItem(reader, valueField));
+            }
+            reader.endArray();
+        }
+        reader.endObject();
+        if (items == null) {
+            throw new IllegalStateException("CRDP bulk 응답 형식 오류");
+        }
+        return items;
+    }
+
+    private static CryptoResult readBulkItem(JsonReader reader, String valueField) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return CryptoResult.error("CRDP bulk 항목 처리 실패");
+        }
+        String value = null;
+        String error = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+            } else if (valueField.equals(name)) {
+                value = reader.nextString();
+            } else if (error == null && ("message".equals(name) || "error_message".equals(name) || "error".equals(name))
+                    && reader.peek() == JsonToken.STRING) {
+                error = reader.nextString();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (value != null) {
+            return CryptoResult.ok(value);
+        }
+        return CryptoResult.error(error != null ? error : "CRDP bulk 항목 처리 실패");
+    }
+
+    // --- Transport (endpoint 선택 + deadline + hedge + circuit breaker) ---
+
+    private <T> T post(Op op, byte[] body, ResponseReader<T> responseReader) throws Exception {
+        try {
+            return call(op, body, responseReader).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
         }
+    }
+
+    /**
+     * 동시 요청 수가 CRDP_MAX_IN_FLIGHT에 도달하면 호출 스레드에서 대기합니다. (hedge 요청은 여유가 있을 때만 전송)
+     */
+    private <T> CompletableFuture<T> postAsync(Op op, byte[] body, ResponseReader<T> responseReader) {
+        return call(op, body, responseReader);
+    }
 
-        return response.body();
+    private <T> CompletableFuture<T> call(Op op, byte[] body, ResponseReader<T> responseReader) {
+        CrdpEndpoint target = choose(null);
+        if (target == null) {
+            CIRCUIT_REJECTED.increment();
+            op.errors.increment();
+            return CompletableFuture.failedFuture(new RuntimeException("CRDP 호출 차단 중 (모든 endpoint circuit breaker open)"));
+        }
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            target.onIgnored();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        HedgedCall<T> call = new HedgedCall<>(op);
+        call.launch(target, body, responseReader, false);
+
+        if (hedgeEnabled) {
+            long quantile = latency[op.ordinal()].quantileNanos();
+            if (quantile >= 0) {
+                ScheduledFuture<?> hedge = TIMER.schedule(() -> call.hedge(target, body, responseReader, false),
+                        Math.max(hedgeMinDelayNanos, quantile), TimeUnit.NANOSECONDS);
+                call.result.whenComplete((value, error) -> hedge.cancel(false));
+            }
+        }
+
+        long deadline = op.bulk ? bulkTimeoutMillis : timeoutMillis;
+        ScheduledFuture<?> timeout = TIMER.schedule(() -> {
+            call.timedOut = true;
+            call.result.completeExceptionally(new TimeoutException("CRDP 응답 시간 초과 (" + deadline + "ms)"));
+        }, deadline, TimeUnit.MILLISECONDS);
+        return call.result.whenComplete((value, error) -> {
+            timeout.cancel(false);
+            if (error != null) {
+                call.cancelAttempts();
+            }
+        });
+    }
+
+    /**
+     * power-of-two-choices: 사용 가능한 endpoint 중 두 개를 무작위로 골라 점수(진행 중 요청 x 응답 시간)가 낮은 쪽.
+     * 정상(closed) endpoint를 복구 시험 중인 endpoint보다 우선합니다. (exclude: 원 요청을 보낸 endpoint)
+     *
+     * @return circuit breaker 허용까지 받은 endpoint, 없으면 null
+     */
+    private CrdpEndpoint choose(CrdpEndpoint exclude) {
+        if (endpoints.length == 1) {
+            CrdpEndpoint only = endpoints[0];
+            return only != exclude && only.tryAcquire() ? only : null;
+        }
+        // tryAcquire가 경합으로 실패하면 다시 고름 (endpoint 수만큼만)
+        for (int attempt = 0; attempt < endpoints.length; attempt++) {
+            int usable = 0;
+            for (CrdpEndpoint candidate : endpoints) {
+                if (candidate != exclude && candidate.isAvailable()) {
+                    usable++;
+                }
+            }
+            if (usable == 0) {
+                return null;
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            CrdpEndpoint a = usableAt(exclude, random.nextInt(usable));
+            CrdpEndpoint chosen = a;
+            if (usable > 1) {
+                int j = random.nextInt(usable - 1);
+                CrdpEndpoint b = usableAt(exclude, j >= indexOfUsable(exclude, a) ? j + 1 : j);
+                if (b != null && (a == null || (a.isClosed() != b.isClosed() ? b.isClosed() : b.score() < a.score()))) {
+                    chosen = b;
+                }
+            }
+            if (chosen != null && chosen.tryAcquire()) {
+                return chosen;
+            }
+        }
+        return null;
+    }
+
+    /** exclude를 뺀 사용 가능 endpoint 중 index번째 (동시 상태 변경으로 없으면 null) */
+    private CrdpEndpoint usableAt(CrdpEndpoint exclude, int index) {
+        for (CrdpEndpoint candidate : endpoints) {
+            if (candidate != exclude && candidate.isAvailable() && index-- == 0) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private int indexOfUsable(CrdpEndpoint exclude, CrdpEndpoint target) {
+        int index = 0;
+        for (CrdpEndpoint candidate : endpoints) {
+            if (candidate == target) {
+                return index;
+            }
+            if (candidate != exclude && candidate.isAvailable()) {
+                index++;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 원 요청 + (필요 시) 다른 endpoint로 hedge 요청 한 번. 먼저 성공한 응답을 사용하고, 둘 다 실패해야 실패로 끝남
+     */
+    private final class HedgedCall<T> {
+        final Op op;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final AtomicInteger pending = new AtomicInteger(1);
+        final AtomicReferenceArray<CompletableFuture<?>> attempts = new AtomicReferenceArray<>(2);
+        final AtomicBoolean extraSent = new AtomicBoolean();
+        volatile boolean failover;
+        volatile boolean timedOut;
+
+        HedgedCall(Op op) {
+            this.op = op;
+        }
+
+        /**
+         * 아직 응답이 없고 in-flight 여유가 있을 때만 다른 endpoint로 한 번 더 전송
+         * (TIMER 스레드의 hedge, 또는 원 요청이 연결 오류 / 5xx로 실패했을 때의 failover)
+         */
+        boolean hedge(CrdpEndpoint primary, byte[] body, ResponseReader<T> responseReader, boolean failover) {
+            int n;
+            do {
+                n = pending.get();
+                if (n == 0 || result.isDone()) {
+                    return false;
+                }
+            } while (!pending.compareAndSet(n, n + 1));
+            if (!extraSent.compareAndSet(false, true)) {
+                pending.decrementAndGet();
+                return false;
+            }
+            if (!inFlight.tryAcquire()) {
+                extraSent.set(false);
+                pending.decrementAndGet();
+                return false;
+            }
+            // 복제본이 여러 개면 원 요청과 다른 endpoint로
+            CrdpEndpoint target = choose(endpoints.length > 1 ? primary : null);
+            if (target == null) {
+                inFlight.release();
+                extraSent.set(false);
+                pending.decrementAndGet();
+                return false;
+            }
+            this.failover = failover;
+            (failover ? op.failovers : op.hedges).increment();
+            launch(target, body, responseReader, true);
+            return true;
+        }
+
+        /** in-flight permit과 endpoint 허용을 받은 상태에서 호출 */
+        void launch(CrdpEndpoint target, byte[] body, ResponseReader<T> responseReader, boolean isHedge) {
+            long start = System.nanoTime();
+            CompletableFuture<HttpResponse<byte[]>> future;
+            try {
+                future = httpClient.sendAsync(buildRequest(target, op, body), HttpResponse.BodyHandlers.ofByteArray());
+            } catch (RuntimeException e) {
+                inFlight.release();
+                target.onFailure();
+                op.errors.increment();
+                onAttempt(null, e, isHedge);
+                return;
+            }
+            attempts.set(isHedge ? 1 : 0, future);
+            future.whenComplete((response, error) -> {
+                long elapsed = System.nanoTime() - start;
+                op.callTime.record(elapsed);
+                inFlight.release();
+                if (result.isDone() && !timedOut) {
+                    // 다른 요청이 먼저 성공해서 버려진 요청: endpoint 상태만 반영
+                    finishAbandoned(target, response, error, elapsed);
+                    pending.decrementAndGet();
+                    return;
+                }
+                if (error != null || response.statusCode() >= 400) {
+                    Throwable failure = error != null ? error : serverError(response);
+                    if (!isCancellation(failure) && unwrap(failure).getMessage() == null) {
+                        // ConnectException 등 메시지 없는 오류
+                        failure = new IOException("CRDP 요청 실패 (" + target.address + "): "
+                                + unwrap(failure).getClass().getSimpleName(), unwrap(failure));
+                    }
+                    if (isCancellation(failure) && !timedOut) {
+                        // hedge에서 진 요청: endpoint 상태와 무관
+                        target.onIgnored();
+                    } else if (timedOut || isUpstreamFailure(failure)) {
+                        target.onFailure();
+                        op.errors.increment();
+                        // 다른 복제본으로 바로 failover (요청당 추가 전송은 hedge 포함 한 번)
+                        if (!isHedge && !timedOut && endpoints.length > 1) {
+                            hedge(target, body, responseReader, true);
+                        }
+                    } else {
+                        // 4xx 는 upstream 장애로 보지 않음
+                        target.onSuccess(elapsed, slowCallNanos[op.ordinal()]);
+                        op.errors.increment();
+                    }
+                    onAttempt(null, failure, isHedge);
+                    return;
+                }
+                target.onSuccess(elapsed, slowCallNanos[op.ordinal()]);
+                T value;
+                try {
+                    value = parseResponse(response, responseReader);
+                } catch (IOException | RuntimeException e) {
+                    onAttempt(null, e, isHedge);
+                    return;
+                }
+                latency[op.ordinal()].record(elapsed);
+                onAttempt(value, null, isHedge);
+            });
+        }
+
+        private void finishAbandoned(CrdpEndpoint target, HttpResponse<byte[]> response, Throwable error,
+                long elapsed) {
+            if (error == null && response.statusCode() < 500) {
+                target.onSuccess(elapsed, slowCallNanos[op.ordinal()]);
+            } else if (!isCancellation(error) && isUpstreamFailure(error != null ? error : serverError(response))) {
+                target.onFailure();
+            } else {
+                target.onIgnored();
+            }
+        }
+
+        /**
+         * 실패 / 시간 초과로 끝난 호출의 남은 요청 정리. 취소가 HTTP 교환을 중단하지 못하는 런타임에서는
+         * 그대로 두고, 실제로 끝날 때 permit 을 반환 (CRDP에 열린 요청 수가 상한을 넘지 않도록)
+         */
+        void cancelAttempts() {
+            if (!CANCEL_ABORTS_EXCHANGE) {
+                return;
+            }
+            for (int i = 0; i < attempts.length(); i++) {
+                CompletableFuture<?> attempt = attempts.get(i);
+                if (attempt != null) {
+                    attempt.cancel(true);
+                }
+            }
+        }
+
+        private void onAttempt(T value, Throwable error, boolean isHedge) {
+            if (error == null) {
+                if (result.complete(value)) {
+                    if (isHedge && !failover) {
+                        op.hedgeWins.increment();
+                    }
+                    // 남은 요청은 JDK 16 이상에서만 취소 (그 미만은 끝날 때까지 두고 응답만 버림)
+                    CompletableFuture<?> other = attempts.get(isHedge ? 0 : 1);
+                    if (other != null && CANCEL_ABORTS_EXCHANGE) {
+                        other.cancel(true);
+                    }
+                }
+                pending.decrementAndGet();
+            } else if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(unwrap(error));
+            }
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static boolean isCancellation(Throwable error) {
+        return unwrap(error) instanceof CancellationException;
+    }
+
+    /** 타임아웃 / 연결 오류 / 5xx 만 circuit breaker 실패로 셈 */
+    private static boolean isUpstreamFailure(Throwable error) {
+        Throwable cause = unwrap(error);
+        if (cause instanceof ServerError) {
+            return ((ServerError) cause).status >= 500;
+        }
+        return cause instanceof IOException || cause instanceof TimeoutException;
+    }
+
+    private static ServerError serverError(HttpResponse<byte[]> response) {
+        return new ServerError(response.statusCode(), new String(response.body(), StandardCharsets.UTF_8));
+    }
+
+    private static final class ServerError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        final int status;
+
+        ServerError(int status, String body) {
+            super("CRDP 서버 오류 (HTTP " + status + "): " + body);
+            this.status = status;
+        }
+    }
+
+    /**
+     * URI / Content-Type / Authorization / timeout 이 채워진 템플릿을 복사해서 본문만 붙임
+     */
+    private static HttpRequest buildRequest(CrdpEndpoint target, Op op, byte[] body) {
+        return target.requestTemplates[op.ordinal()].copy()
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+    }
+
+    private static <T> T parseResponse(HttpResponse<byte[]> response, ResponseReader<T> responseReader)
+            throws IOException {
+        if (response.statusCode() >= 400) {
+            throw serverError(response);
+        }
+        try (JsonReader reader = new JsonReader(new InputStreamReader(
+                new ByteArrayInputStream(response.body()), StandardCharsets.UTF_8))) {
+            return responseReader.read(reader);
+        }
     }
 
     private SSLContext getInsecureSslContext() throws Exception {
@@ -0,0 +1,97 @@
+package com.example;
+
+import com.example.metrics.Counter;
+import com.example.metrics.Metrics;
+
+import java.net.http.HttpRequest;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * CRDP 복제본 하나 (CRDP_ENDPOINT 목록의 항목)
+ *
+ * - 요청 선택 점수: (진행 중 요청 수 + 1) x 최근 응답 시간(peak EWMA). 낮을수록 우선
+ * - circuit breaker로 실패/느린 endpoint를 제외하고, 재시도 간격은 연속 실패 시 늘어남
+ */
+final class CrdpEndpoint {
+
+    // 처음에는 모든 endpoint가 같은 점수로 시작
+    private static final long INITIAL_LATENCY_NANOS = 1_000_000L;
+
+    final String address;
+    final String baseUrl;
+    /** Op.ordinal() 별 요청 템플릿 (URI / 헤더 / timeout) */
+    final HttpRequest.Builder[] requestTemplates;
+
+    private final CircuitBreaker breaker;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final Counter requests;
+    private volatile long latencyNanos = INITIAL_LATENCY_NANOS;
+
+    CrdpEndpoint(String address, String baseUrl, int opCount, CircuitBreaker breaker) {
+        this.address = address;
+        this.baseUrl = baseUrl;
+        this.requestTemplates = new HttpRequest.Builder[opCount];
+        this.breaker = breaker;
+        this.requests = Metrics.counter("app_crdp_endpoint_requests_total", "CRDP HTTP requests per endpoint",
+                "endpoint", address);
+        Metrics.gauge("app_crdp_endpoint_outstanding", "CRDP requests in flight per endpoint",
+                outstanding::get, "endpoint", address);
+        Metrics.gauge("app_crdp_endpoint_latency_micros", "CRDP response time EWMA per endpoint",
+                () -> latencyNanos / 1000, "endpoint", address);
+        if (breaker != null) {
+            Metrics.gauge("app_crdp_circuit_state", "CRDP circuit breaker state (0=closed, 1=open, 2=half-open)",
+                    () -> breaker.getState().ordinal(), "endpoint", address);
+            Metrics.counterFunction("app_crdp_circuit_opened_total", "CRDP circuit breaker transitions to open",
+                    breaker::getOpenCount, "endpoint", address);
+        }
+    }
+
+    boolean isAvailable() {
+        return breaker == null || breaker.isAvailable();
+    }
+
+    boolean isClosed() {
+        return breaker == null || breaker.getState() == CircuitBreaker.State.CLOSED;
+    }
+
+    /**
+     * circuit breaker 허용 시 진행 중 요청으로 등록 (호출 후 onSuccess / onFailure / onIgnored 중 하나를 반드시 호출)
+     */
+    boolean tryAcquire() {
+        if (breaker != null && !breaker.tryAcquire()) {
+            return false;
+        }
+        outstanding.incrementAndGet();
+        requests.increment();
+        return true;
+    }
+
+    /** slowCallNanos: 이 호출 종류의 느린 호출 기준 (circuit breaker용) */
+    void onSuccess(long elapsedNanos, long slowCallNanos) {
+        outstanding.decrementAndGet();
+        // peak EWMA: 느려지면 바로 반영하고 빨라질 때는 천천히 (alpha = 0.2), 동시 갱신 시 일부 표본이 빠져도 무방
+        long previous = latencyNanos;
+        latencyNanos = elapsedNanos > previous ? elapsedNanos : previous + (elapsedNanos - previous) / 5;
+        if (breaker != null) {
+            breaker.onSuccess(elapsedNanos, slowCallNanos);
+        }
+    }
+
+    void onFailure() {
+        outstanding.decrementAndGet();
+        if (breaker != null) {
+            breaker.onFailure();
+        }
+    }
+
+    void onIgnored() {
+        outstanding.decrementAndGet();
+        if (breaker != null) {
+            breaker.onIgnored();
+        }
+    }
+
+    long score() {
+        return (outstanding.get() + 1L) * Math.max(1L, latencyNanos);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example;
+
+import java.nio.ByteBuffer;
+
+/**
+ * byte[] 단위 암복호화 결과 (성공 값 또는 오류 메시지)
+ *
+ * 값 배열은 복사하지 않고 CADP가 돌려준 배열을 그대로 담습니다. 평문 배열은 사용 후 호출 측에서 지울 수 있습니다.
+ */
+public final class CryptoBytes {
+
+    private final byte[] value;
+    private final String error;
+
+    private CryptoBytes(byte[] value, String error) {
+        this.value = value;
+        this.error = error;
+    }
+
+    public static CryptoBytes ok(byte[] value) {
+        return new CryptoBytes(value, null);
+    }
+
+    public static CryptoBytes error(String error) {
+        return new CryptoBytes(null, error == null ? "unknown error" : error);
+    }
+
+    public boolean isOk() {
+        return error == null;
+    }
+
+    public byte[] getValue() {
+        return value;
+    }
+
+    /** 값 배열을 감싼 버퍼 (복사 없음), 실패 시 null */
+    public ByteBuffer asByteBuffer() {
+        return value == null ? null : ByteBuffer.wrap(value);
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        // 평문 값은 절대 로그에 남기지 않음
+        return isOk() ? "CryptoBytes[ok, " + value.length + " bytes]" : "CryptoBytes[error=" + error + "]";
+    }
+}
@@ -0,0 +1,41 @@
+package com.example;
+
+/**
+ * 배치 암복호화의 항목별 결과 (성공 값 또는 오류 메시지)
+ */
+public final class CryptoResult {
+
+    private final String value;
+    private final String error;
+
+    private CryptoResult(String value, String error) {
+        this.value = value;
+        this.error = error;
+    }
+
+    public static CryptoResult ok(String value) {
+        return new CryptoResult(value, null);
+    }
+
+    public static CryptoResult error(String error) {
+        return new CryptoResult(null, error == null ? "unknown error" : error);
+    }
+
+    public boolean isOk() {
+        return error == null;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        // 평문 값은 절대 로그에 남기지 않음
+        return isOk() ? "CryptoResult[ok]" : "CryptoResult[error=" + error + "]";
+    }
+}
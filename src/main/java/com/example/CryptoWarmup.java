@@ -0,0 +1,208 @@
+package com.example;
+
+import com.example.metrics.Metrics;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 기동 시 CADP / CRDP 클라이언트를 백그라운드에서 미리 초기화 (readiness 판단용)
+ *
+ * - CRYPTO_WARMUP_PROVIDERS (none 이면 없음) 에 나열한 클라이언트를 병렬로 초기화.
+ *   기본값은 설정된 클라이언트만 (CADP: Key Manager 주소, CRDP: endpoint 가 있는 경우)
+ *   - cadp: 키 매니저 등록(실패했으면 재시도마다 다시 등록) 후 protect / reveal 한 번씩 호출해서 키를 받아 둠
+ *   - crdp: 생성(endpoint마다 1회 워밍업) 후 endpoint마다 CRDP_WARMUP_CONNECTIONS(기본 4) 건을 동시에 호출해서 연결을 열어 둠
+ * - 실패하면 CRYPTO_WARMUP_RETRY_SECONDS(기본 5) 후 다시 시도
+ * - 나열한 클라이언트가 모두 준비되면 isReady() = true. 이후 장애는 circuit breaker 등이 처리하며 readiness 는 유지
+ *
+ * 첫 사용자 요청이 클래스 lock 안에서 초기화를 기다리지 않도록 하기 위한 것입니다.
+ */
+public final class CryptoWarmup {
+
+    public enum State {
+        PENDING, READY, FAILED
+    }
+
+    /** 클라이언트 하나의 초기화 상태 */
+    public static final class Status {
+        private final String provider;
+        private volatile State state = State.PENDING;
+        private volatile String lastError;
+        private volatile long readyMillis = -1;
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        Status(String provider) {
+            this.provider = provider;
+        }
+
+        public String getProvider() {
+            return provider;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        public String getLastError() {
+            return lastError;
+        }
+
+        /** 기동 후 준비될 때까지 걸린 시간 (ms), 아직이면 -1 */
+        public long getReadyMillis() {
+            return readyMillis;
+        }
+
+        public int getAttempts() {
+            return attempts.get();
+        }
+    }
+
+    private static final String WARMUP_VALUE = "WARMUP";
+
+    private static final Map<String, Status> STATUSES = Collections.synchronizedMap(new LinkedHashMap<>());
+    private static ScheduledExecutorService executor;
+    private static long startNanos;
+
+    private CryptoWarmup() {
+    }
+
+    /**
+     * 설정된 클라이언트의 초기화를 시작합니다. (웹앱 기동 시)
+     */
+    public static synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        List<String> providers = providers();
+        STATUSES.clear();
+        startNanos = System.nanoTime();
+        executor = Executors.newScheduledThreadPool(Math.max(1, providers.size()), r -> {
+            Thread t = new Thread(r, "crypto-warmup");
+            t.setDaemon(true);
+            return t;
+        });
+        for (String provider : providers) {
+            Status status = new Status(provider);
+            STATUSES.put(provider, status);
+            Metrics.gauge("app_crypto_ready", "Crypto client initialized and warmed up (1) or not (0)",
+                    () -> status.state == State.READY ? 1 : 0, "provider", provider);
+            executor.execute(() -> attempt(status));
+        }
+    }
+
+    public static synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * 설정된 클라이언트가 모두 준비되었는지 (대상이 없으면 true)
+     */
+    public static boolean isReady() {
+        synchronized (STATUSES) {
+            for (Status status : STATUSES.values()) {
+                if (status.state != State.READY) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public static List<Status> getStatuses() {
+        synchronized (STATUSES) {
+            return new ArrayList<>(STATUSES.values());
+        }
+    }
+
+    private static void attempt(Status status) {
+        status.attempts.incrementAndGet();
+        try {
+            if ("cadp".equals(status.provider)) {
+                warmCadp();
+            } else {
+                warmCrdp();
+            }
+            status.readyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            status.lastError = null;
+            status.state = State.READY;
+            System.out.println("Crypto warmup: " + status.provider + " ready in " + status.readyMillis + " ms");
+        } catch (Exception e) {
+            status.lastError = e.getMessage();
+            status.state = State.FAILED;
+            System.err.println("Crypto warmup failed for " + status.provider + " (attempt " + status.getAttempts()
+                    + "), retrying: " + e.getMessage());
+            synchronized (CryptoWarmup.class) {
+                if (executor != null) {
+                    executor.schedule(() -> attempt(status), retrySeconds(), TimeUnit.SECONDS);
+                }
+            }
+        }
+    }
+
+    private static void warmCadp() {
+        CadpClient cadp = CadpClient.getInstance();
+        // 기동 시 Key Manager 에 연결하지 못했으면 같은 인스턴스로 다시 등록
+        if (!cadp.ensureRegistered()) {
+            throw new IllegalStateException("CADP client registration failed");
+        }
+        // 등록 실패는 CadpClient 안에서 로그만 남기므로 실제 호출로 확인 (DecryptCache 를 거치지 않는 byte[] API)
+        byte[] plain = WARMUP_VALUE.getBytes(StandardCharsets.UTF_8);
+        CryptoBytes protectedValue = cadp.protect(plain);
+        if (!protectedValue.isOk()) {
+            throw new IllegalStateException("CADP protect failed: " + protectedValue.getError());
+        }
+        CryptoBytes revealed = cadp.reveal(protectedValue.getValue());
+        if (!revealed.isOk() || !Arrays.equals(plain, revealed.getValue())) {
+            throw new IllegalStateException("CADP reveal failed: " + revealed.getError());
+        }
+    }
+
+    private static void warmCrdp() {
+        CrdpClient crdp = CrdpClient.getInstance();
+        if (crdp.warmup(Math.max(1, Env.getInt("CRDP_WARMUP_CONNECTIONS", 4))) == 0) {
+            throw new IllegalStateException("No CRDP endpoint answered the warmup calls");
+        }
+    }
+
+    private static List<String> providers() {
+        String value = Env.get("CRYPTO_WARMUP_PROVIDERS", null);
+        if (value == null) {
+            List<String> configured = new ArrayList<>();
+            if (CadpClient.isConfigured()) {
+                configured.add("cadp");
+            }
+            if (CrdpClient.isConfigured()) {
+                configured.add("crdp");
+            }
+            return configured;
+        }
+        List<String> providers = new ArrayList<>();
+        for (String part : value.split(",")) {
+            String provider = part.trim().toLowerCase();
+            if ("cadp".equals(provider) || "crdp".equals(provider)) {
+                if (!providers.contains(provider)) {
+                    providers.add(provider);
+                }
+            } else if (!provider.isEmpty() && !"none".equals(provider)) {
+                System.err.println("Unknown provider in CRYPTO_WARMUP_PROVIDERS: " + provider);
+            }
+        }
+        return providers;
+    }
+
+    private static long retrySeconds() {
+        return Math.max(1, Env.getInt("CRYPTO_WARMUP_RETRY_SECONDS", 5));
+    }
+}
@@ -0,0 +1,191 @@
+package com.example;
+
+import com.example.metrics.Counter;
+import com.example.metrics.Histogram;
+import com.example.metrics.Metrics;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 모든 서블릿이 공유하는 MySQL 커넥션 풀 (HikariCP).
+ * 설정은 CadpClient와 동일하게 DB_* 환경 변수를 우선 읽고, 없으면 db.properties 값을 사용합니다.
+ */
+public class DbPool {
+
+    private static final String PROPERTIES_FILE = "db.properties";
+    private static final String DEFAULT_URL = "jdbc:mysql://mysql:3306/mysql_employees?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC&useUnicode=true&characterEncoding=UTF-8";
+
+    private static volatile DbPool instance;
+
+    private static final Histogram ACQUIRE_TIME = Metrics.histogram("app_db_connection_acquire_seconds",
+            "Time waiting for a pooled DB connection");
+    private static final Counter ACQUIRE_TIMEOUTS = Metrics.counter("app_db_connection_timeouts_total",
+            "Pooled DB connection acquire timeouts");
+
+    static {
+        Metrics.gauge("app_db_pool_connections", "Pooled DB connections by state",
+                () -> instance == null ? 0 : instance.getActiveConnections(), "state", "active");
+        Metrics.gauge("app_db_pool_connections", "Pooled DB connections by state",
+                () -> instance == null ? 0 : instance.getIdleConnections(), "state", "idle");
+        Metrics.gauge("app_db_pool_waiting_threads", "Threads waiting for a pooled DB connection",
+                () -> instance == null ? 0 : instance.getThreadsAwaitingConnection());
+    }
+
+    private final HikariDataSource dataSource;
+    private final int batchSize;
+
+    // Pool-wait metrics (커넥션 획득 대기 시간)
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final AtomicLong acquireMaxNanos = new AtomicLong();
+    private final LongAdder timeoutCount = new LongAdder();
+
+    private DbPool() {
+        Properties prop = Env.classpathProperties(PROPERTIES_FILE);
+        this.dataSource = new HikariDataSource(buildConfig(prop));
+        this.batchSize = Math.max(1, Env.getInt(prop, "DB_BATCH_SIZE", "batchSize", 1000));
+    }
+
+    public static DbPool getInstance() {
+        if (instance == null) {
+            synchronized (DbPool.class) {
+                if (instance == null) {
+                    instance = new DbPool();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 웹앱 종료 시 풀을 닫습니다.
+     */
+    public static void shutdown() {
+        synchronized (DbPool.class) {
+            if (instance != null) {
+                instance.dataSource.close();
+                instance = null;
+            }
+        }
+    }
+
+    public Connection getConnection() throws SQLException {
+        return dataSource.getConnection();
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    /**
+     * 대량 INSERT 시 한 번에 executeBatch/commit 하는 행 수
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    private HikariConfig buildConfig(Properties prop) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("employee-pool");
+        config.setDriverClassName("com.mysql.cj.jdbc.Driver");
+        config.setJdbcUrl(Env.get(prop, "DB_URL", "jdbcUrl", DEFAULT_URL));
+        config.setUsername(Env.get(prop, "DB_USER", "user", "testuser"));
+        config.setPassword(Env.get(prop, "DB_PASSWORD", "password", "testpassword"));
+
+        config.setMinimumIdle(Env.getInt(prop, "DB_POOL_MIN_IDLE", "minIdle", 2));
+        config.setMaximumPoolSize(Env.getInt(prop, "DB_POOL_MAX_SIZE", "maxPoolSize", 10));
+        config.setConnectionTimeout(Env.getInt(prop, "DB_POOL_CONNECTION_TIMEOUT_MS", "connectionTimeoutMs", 5000));
+        config.setValidationTimeout(Env.getInt(prop, "DB_POOL_VALIDATION_TIMEOUT_MS", "validationTimeoutMs", 2000));
+        config.setIdleTimeout(Env.getInt(prop, "DB_POOL_IDLE_TIMEOUT_MS", "idleTimeoutMs", 600000));
+        config.setMaxLifetime(Env.getInt(prop, "DB_POOL_MAX_LIFETIME_MS", "maxLifetimeMs", 1800000));
+        config.setLeakDetectionThreshold(Env.getInt(prop, "DB_POOL_LEAK_DETECTION_MS", "leakDetectionThresholdMs", 30000));
+
+        // MySQL 기동 전에 웹앱이 먼저 올라와도 실패하지 않도록 지연 연결
+        config.setInitializationFailTimeout(-1);
+
+        // 서버측 PreparedStatement 캐시 (매 요청 동일 SQL 재사용)
+        config.addDataSourceProperty("cachePrepStmts", "true");
+        config.addDataSourceProperty("prepStmtCacheSize", "250");
+        config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        config.addDataSourceProperty("useServerPrepStmts", "true");
+
+        // executeBatch()를 multi-row INSERT 한 문장으로 재작성 (행마다 round trip 하지 않음)
+        config.addDataSourceProperty("rewriteBatchedStatements", "true");
+
+        config.setMetricsTrackerFactory(new WaitTrackerFactory());
+        return config;
+    }
+
+    // --- Pool statistics ---
+
+    public int getActiveConnections() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getActiveConnections();
+    }
+
+    public int getIdleConnections() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getIdleConnections();
+    }
+
+    public int getTotalConnections() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getTotalConnections();
+    }
+
+    public int getThreadsAwaitingConnection() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getThreadsAwaitingConnection();
+    }
+
+    public long getAcquireCount() {
+        return acquireCount.sum();
+    }
+
+    public long getAcquireTotalNanos() {
+        return acquireNanos.sum();
+    }
+
+    public long getAcquireMaxNanos() {
+        return acquireMaxNanos.get();
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
+
+    /**
+     * HikariCP가 커넥션 획득 시마다 호출하는 metrics hook
+     */
+    private class WaitTrackerFactory implements MetricsTrackerFactory {
+        @Override
+        public IMetricsTracker create(String poolName, PoolStats poolStats) {
+            return new IMetricsTracker() {
+                @Override
+                public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                    acquireCount.increment();
+                    acquireNanos.add(elapsedAcquiredNanos);
+                    acquireMaxNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+                    ACQUIRE_TIME.record(elapsedAcquiredNanos);
+                }
+
+                @Override
+                public void recordConnectionTimeout() {
+                    timeoutCount.increment();
+                    ACQUIRE_TIMEOUTS.increment();
+                }
+            };
+        }
+    }
+}
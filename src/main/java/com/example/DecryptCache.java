@@ -0,0 +1,397 @@
+package com.example;
+
+import com.example.metrics.Metrics;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * CadpClient / CrdpClient 복호화 결과 캐시 (프로세스 내, 선택 사항)
+ *
+ * - 키: (policy, user, ciphertext)
+ * - 크기 상한 + 짧은 TTL
+ * - Segmented LRU: 새 항목은 probation 구역에 들어가고 두 번째 조회 시 protected 구역으로 승격되므로,
+ *   전체 테이블 순회 같은 1회성 조회가 자주 쓰는 항목(hot set)을 밀어내지 않음
+ * - 동일 ciphertext에 대한 동시 miss는 한 번의 upstream 호출로 합침 (get / getAsync / begin 모두 같은 진행 중 호출 목록 사용)
+ *
+ * DECRYPT_CACHE_MAX_ENTRIES 가 0(기본값)이면 비활성화됩니다. 평문 값은 로그에 남기지 않습니다.
+ */
+public class DecryptCache {
+
+    /** upstream 복호화 호출 (null 반환 시 캐시하지 않음) */
+    public interface Loader {
+        String load() throws Exception;
+    }
+
+    /** 비동기 upstream 복호화 호출 */
+    public interface AsyncLoader {
+        CompletableFuture<String> load();
+    }
+
+    /**
+     * 일괄 복호화 경로의 항목 하나 (begin 참고). isOwner() 이면 호출 측이 upstream 결과로 finish / fail 해야 함
+     */
+    public static final class Pending {
+        private final Key key;
+        private final CompletableFuture<String> future;
+        private final boolean owner;
+
+        Pending(Key key, CompletableFuture<String> future, boolean owner) {
+            this.key = key;
+            this.future = future;
+            this.owner = owner;
+        }
+
+        public boolean isOwner() {
+            return owner;
+        }
+
+        public CompletableFuture<String> getFuture() {
+            return future;
+        }
+    }
+
+    private static final int SHARDS = 16;
+    private static final long DEFAULT_TTL_MS = 60_000;
+
+    private static volatile DecryptCache instance;
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final Shard[] shards;
+    private final ConcurrentHashMap<Key, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    DecryptCache(int maxEntries, long ttlMillis) {
+        this.enabled = maxEntries > 0 && ttlMillis > 0;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.shards = new Shard[SHARDS];
+        // 합계가 정확히 maxEntries 가 되도록 나머지를 앞쪽 shard 에 1개씩 배분 (maxEntries < 16 이면 용량 0인 shard 도 있음)
+        int capacity = Math.max(0, maxEntries);
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new Shard(capacity / SHARDS + (i < capacity % SHARDS ? 1 : 0));
+        }
+    }
+
+    static {
+        String help = "Decrypt cache events";
+        Metrics.counterFunction("app_decrypt_cache_events_total", help, () -> getInstance().getHits(), "event", "hit");
+        Metrics.counterFunction("app_decrypt_cache_events_total", help, () -> getInstance().getMisses(), "event", "miss");
+        Metrics.counterFunction("app_decrypt_cache_events_total", help, () -> getInstance().getEvictions(), "event", "eviction");
+        Metrics.counterFunction("app_decrypt_cache_events_total", help, () -> getInstance().getExpirations(), "event", "expiration");
+        Metrics.counterFunction("app_decrypt_cache_events_total", help, () -> getInstance().getCoalesced(), "event", "coalesced");
+        Metrics.gauge("app_decrypt_cache_entries", "Decrypt cache entries", () -> getInstance().size());
+    }
+
+    public static DecryptCache getInstance() {
+        if (instance == null) {
+            synchronized (DecryptCache.class) {
+                if (instance == null) {
+                    instance = new DecryptCache(Env.getInt("DECRYPT_CACHE_MAX_ENTRIES", 0),
+                            Env.getInt("DECRYPT_CACHE_TTL_MS", (int) DEFAULT_TTL_MS));
+                }
+            }
+        }
+        return instance;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 캐시에서 찾고, 없으면 loader로 복호화한 뒤 저장합니다.
+     * 같은 키에 대해 진행 중인 호출이 있으면 그 결과를 기다립니다.
+     */
+    public String get(String policy, String user, String cipherText, Loader loader) throws Exception {
+        if (!enabled || cipherText == null) {
+            return loader.load();
+        }
+        Key key = new Key(policy, user, cipherText);
+        String cached = lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.increment();
+            try {
+                return existing.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof Exception ? (Exception) cause : e;
+            }
+        }
+
+        try {
+            String value = loader.load();
+            if (value != null) {
+                store(key, value);
+            }
+            mine.complete(value);
+            return value;
+        } catch (Exception e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * get 의 비동기 형태. 같은 키에 대해 진행 중인 호출(동기 / 비동기 / 일괄)이 있으면 그 결과를 함께 받습니다.
+     */
+    public CompletableFuture<String> getAsync(String policy, String user, String cipherText, AsyncLoader loader) {
+        if (!enabled || cipherText == null) {
+            return loader.load();
+        }
+        Pending pending = begin(policy, user, cipherText);
+        if (!pending.owner) {
+            return pending.future.copy();
+        }
+        CompletableFuture<String> upstream;
+        try {
+            upstream = loader.load();
+        } catch (RuntimeException e) {
+            fail(pending, e);
+            return CompletableFuture.failedFuture(e);
+        }
+        upstream.whenComplete((value, error) -> {
+            if (error != null) {
+                fail(pending, error);
+            } else {
+                finish(pending, value);
+            }
+        });
+        return pending.future.copy();
+    }
+
+    /**
+     * 일괄 복호화 경로용: 캐시 hit 이면 완료된 future, 같은 키를 다른 호출이 가져오는 중이면 그 future,
+     * 아니면 새로 등록한 future 를 반환합니다 (isOwner). owner 는 반드시 finish 또는 fail 을 호출해야 하며,
+     * 다른 호출의 future 를 기다리기 전에 자신이 맡은 항목을 먼저 끝내야 합니다. 비활성화 상태면 null.
+     */
+    public Pending begin(String policy, String user, String cipherText) {
+        if (!enabled || cipherText == null) {
+            return null;
+        }
+        Key key = new Key(policy, user, cipherText);
+        String cached = lookup(key);
+        if (cached != null) {
+            return new Pending(key, CompletableFuture.completedFuture(cached), false);
+        }
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.increment();
+            return new Pending(key, existing, false);
+        }
+        return new Pending(key, mine, true);
+    }
+
+    /** begin 으로 맡은 항목의 upstream 결과 (null 이면 캐시하지 않음) */
+    public void finish(Pending pending, String value) {
+        if (value != null) {
+            store(pending.key, value);
+        }
+        inFlight.remove(pending.key, pending.future);
+        pending.future.complete(value);
+    }
+
+    public void fail(Pending pending, Throwable error) {
+        inFlight.remove(pending.key, pending.future);
+        pending.future.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error);
+    }
+
+    /**
+     * 캐시된 평문을 모두 삭제합니다.
+     */
+    public void clear() {
+        for (Shard shard : shards) {
+            shard.clear();
+        }
+    }
+
+    private String lookup(Key key) {
+        String value = shardFor(key).get(key, System.nanoTime());
+        if (value != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return value;
+    }
+
+    private void store(Key key, String value) {
+        shardFor(key).put(key, value, System.nanoTime() + ttlNanos);
+    }
+
+    private Shard shardFor(Key key) {
+        return shards[(key.hash ^ (key.hash >>> 16)) & (SHARDS - 1)];
+    }
+
+    // --- Statistics ---
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getExpirations() {
+        return expirations.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "DecryptCache[enabled=" + enabled + ", size=" + size() + ", hits=" + getHits()
+                + ", misses=" + getMisses() + ", evictions=" + getEvictions() + "]";
+    }
+
+    private static final class Key {
+        final String policy;
+        final String user;
+        final String cipherText;
+        final int hash;
+
+        Key(String policy, String user, String cipherText) {
+            this.policy = policy;
+            this.user = user;
+            this.cipherText = cipherText;
+            this.hash = Objects.hash(policy, user, cipherText);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+            Key other = (Key) o;
+            return hash == other.hash && cipherText.equals(other.cipherText)
+                    && Objects.equals(policy, other.policy) && Objects.equals(user, other.user);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+        final String value;
+        final long expiresAt;
+
+        Entry(String value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Segmented LRU 한 조각 (probation 20% / protected 80%, 두 구역 합계가 capacity 를 넘지 않음)
+     */
+    private final class Shard {
+        private final int protectedCapacity;
+        private final int probationCapacity;
+        // insertion order = LRU -> MRU (재사용 시 remove 후 다시 put)
+        private final LinkedHashMap<Key, Entry> probation = new LinkedHashMap<>();
+        private final LinkedHashMap<Key, Entry> protectedSegment = new LinkedHashMap<>();
+
+        Shard(int capacity) {
+            // capacity 1 이면 protected 0 / probation 1, capacity 0 이면 저장 즉시 제거
+            this.protectedCapacity = capacity * 4 / 5;
+            this.probationCapacity = capacity - protectedCapacity;
+        }
+
+        synchronized String get(Key key, long now) {
+            Entry entry = protectedSegment.remove(key);
+            if (entry == null) {
+                entry = probation.remove(key);
+                if (entry == null) {
+                    return null;
+                }
+            }
+            if (entry.expiresAt - now <= 0) {
+                expirations.increment();
+                return null;
+            }
+            // 두 번째 이상 조회 -> protected MRU로 이동
+            protectedSegment.put(key, entry);
+            demoteOverflow();
+            return entry.value;
+        }
+
+        synchronized void put(Key key, String value, long expiresAt) {
+            Entry entry = new Entry(value, expiresAt);
+            if (protectedSegment.containsKey(key)) {
+                protectedSegment.put(key, entry);
+                return;
+            }
+            probation.remove(key);
+            probation.put(key, entry);
+            evictOverflow();
+        }
+
+        private void demoteOverflow() {
+            while (protectedSegment.size() > protectedCapacity) {
+                Iterator<Map.Entry<Key, Entry>> it = protectedSegment.entrySet().iterator();
+                Map.Entry<Key, Entry> eldest = it.next();
+                it.remove();
+                probation.put(eldest.getKey(), eldest.getValue());
+            }
+            evictOverflow();
+        }
+
+        private void evictOverflow() {
+            while (probation.size() > probationCapacity) {
+                Iterator<Key> it = probation.keySet().iterator();
+                it.next();
+                it.remove();
+                evictions.increment();
+            }
+        }
+
+        synchronized void clear() {
+            probation.clear();
+            protectedSegment.clear();
+        }
+
+        synchronized int size() {
+            return probation.size() + protectedSegment.size();
+        }
+    }
+}
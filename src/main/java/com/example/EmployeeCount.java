@@ -0,0 +1,158 @@
+package com.example;
+
+import com.example.metrics.Counter;
+import com.example.metrics.Metrics;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * employee 전체 행 수 (목록 응답의 total / pageCount 용)
+ *
+ * - 기동 시 백그라운드에서 COUNT(*) 한 번으로 초기값을 정하고, 등록 경로가 beginInsert() 토큰으로 commit 한 행 수만큼 증가
+ * - EMPLOYEE_COUNT_RECONCILE_SECONDS(기본 600) 마다 백그라운드에서 다시 세어서 다른 인스턴스 / DB 직접 변경분을 보정
+ *   (값이 바뀌면 EmployeeTableVersion 을 올려서 캐시된 페이지의 total 도 갱신)
+ * - 요청 처리 경로에서는 COUNT(*) 를 실행하지 않음. 초기값을 세기 전에는 -1
+ */
+public final class EmployeeCount {
+
+    private static final long DEFAULT_RECONCILE_SECONDS = 600;
+    private static final int RECONCILE_ATTEMPTS = 3;
+    private static final long RECONCILE_RETRY_MILLIS = 200;
+
+    private static long total = -1;
+    // 기동 후 시작한 등록 트랜잭션 수와 아직 끝나지 않은 수 (다시 세는 동안 등록이 있었는지 확인용)
+    private static long started;
+    private static int inFlight;
+    private static ScheduledExecutorService scheduler;
+
+    private static final Counter CORRECTIONS = Metrics.counter("app_employee_count_corrections_total",
+            "Reconciliations that changed the maintained employee count");
+
+    static {
+        Metrics.gauge("app_employee_count", "Maintained employee row count (-1 until seeded)", EmployeeCount::get);
+    }
+
+    private EmployeeCount() {
+    }
+
+    public static synchronized long get() {
+        return total;
+    }
+
+    /**
+     * 등록 트랜잭션을 시작하기 전에 호출합니다 (try-with-resources).
+     * commit 한 뒤 Insert.committed(rows), 성공/실패와 관계없이 close().
+     *
+     * COUNT(*) 는 진행 중인 등록이 없을 때 시작해서 그 사이 새 등록이 없었을 때만 반영하므로,
+     * count() 전에 commit 됐지만 아직 committed() 를 호출하지 않은 행이 두 번 세어지지 않습니다.
+     */
+    public static synchronized Insert beginInsert() {
+        started++;
+        inFlight++;
+        return new Insert();
+    }
+
+    public static final class Insert implements AutoCloseable {
+        private boolean closed;
+
+        private Insert() {
+        }
+
+        /** commit 후 호출 (한 트랜잭션에서 여러 번 commit 하면 매번 호출) */
+        public void committed(int rows) {
+            synchronized (EmployeeCount.class) {
+                if (total >= 0) {
+                    total += rows;
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            synchronized (EmployeeCount.class) {
+                if (!closed) {
+                    closed = true;
+                    inFlight--;
+                }
+            }
+        }
+    }
+
+    /**
+     * 초기값 계산과 주기적 보정을 시작합니다. (웹앱 기동 시)
+     */
+    public static synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        long interval = Math.max(1, Env.getLong("EMPLOYEE_COUNT_RECONCILE_SECONDS", DEFAULT_RECONCILE_SECONDS));
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "employee-count");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(EmployeeCount::reconcile, 0, interval, TimeUnit.SECONDS);
+    }
+
+    public static synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * COUNT(*) 로 다시 세어서 반영합니다. 세기 시작할 때 이 인스턴스에서 진행 중인 등록이 있었거나
+     * 세는 동안 새 등록이 시작됐으면 그 행이 포함됐는지 알 수 없으므로 잠시 후 다시 셉니다.
+     */
+    static void reconcile() {
+        try {
+            for (int attempt = 0; attempt < RECONCILE_ATTEMPTS; attempt++) {
+                if (attempt > 0) {
+                    Thread.sleep(RECONCILE_RETRY_MILLIS);
+                }
+                long before;
+                synchronized (EmployeeCount.class) {
+                    if (inFlight > 0) {
+                        continue;
+                    }
+                    before = started;
+                }
+                long counted = count();
+                synchronized (EmployeeCount.class) {
+                    if (started != before) {
+                        continue;
+                    }
+                    long previous = total;
+                    total = counted;
+                    if (previous >= 0 && previous != counted) {
+                        CORRECTIONS.increment();
+                        EmployeeTableVersion.increment();
+                        System.out.println("Employee count corrected: " + previous + " -> " + counted);
+                    }
+                    return;
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            // 다음 주기에 다시 시도
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long count() throws SQLException {
+        try (Connection conn = DbPool.getInstance().getConnection();
+                PreparedStatement stmt = conn.prepareStatement("SELECT COUNT(*) FROM employee");
+                ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
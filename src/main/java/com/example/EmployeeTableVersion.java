@@ -0,0 +1,26 @@
+package com.example;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * employee 테이블 변경 카운터 (프로세스 내)
+ *
+ * 이 애플리케이션에서 employee 를 변경하는 경로(등록, 대량 등록, 재암호화)가 commit 후 증가시키며,
+ * 목록 페이지 캐시는 조회 시작 시점의 값과 다르면 저장된 페이지를 버립니다.
+ * 다른 프로세스나 DB에서 직접 변경한 내용은 반영되지 않습니다.
+ */
+public final class EmployeeTableVersion {
+
+    private static final AtomicLong VERSION = new AtomicLong();
+
+    private EmployeeTableVersion() {
+    }
+
+    public static long current() {
+        return VERSION.get();
+    }
+
+    public static void increment() {
+        VERSION.incrementAndGet();
+    }
+}
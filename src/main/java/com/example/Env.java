@@ -0,0 +1,94 @@
+package com.example;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * 설정값 읽기 (환경 변수 우선, 없으면 properties 파일 값, 그것도 없으면 기본값)
+ *
+ * 비어 있는 값은 설정하지 않은 것으로 보고, 숫자 형식이 잘못되면 로그를 남기고 기본값을 씁니다.
+ * 범위 제한(Math.max 등)은 호출 측에서 적용합니다.
+ */
+public final class Env {
+
+    private Env() {
+    }
+
+    public static String get(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isEmpty() ? defaultValue : value;
+    }
+
+    public static int getInt(String name, int defaultValue) {
+        return parseInt(name, System.getenv(name), defaultValue);
+    }
+
+    public static long getLong(String name, long defaultValue) {
+        return parseLong(name, System.getenv(name), defaultValue);
+    }
+
+    public static boolean getBoolean(String name, boolean defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isEmpty() ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+
+    /**
+     * 환경 변수 envName, 없으면 props 의 propName
+     */
+    public static String get(Properties props, String envName, String propName, String defaultValue) {
+        String value = System.getenv(envName);
+        if (value == null || value.isEmpty()) {
+            value = props.getProperty(propName);
+        }
+        return value == null || value.isEmpty() ? defaultValue : value;
+    }
+
+    public static int getInt(Properties props, String envName, String propName, int defaultValue) {
+        return parseInt(envName, get(props, envName, propName, null), defaultValue);
+    }
+
+    public static boolean getBoolean(Properties props, String envName, String propName, boolean defaultValue) {
+        String value = get(props, envName, propName, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+
+    /**
+     * 클래스패스의 properties 파일 (없거나 읽을 수 없으면 빈 Properties)
+     */
+    public static Properties classpathProperties(String resource) {
+        Properties props = new Properties();
+        try (InputStream input = Env.class.getClassLoader().getResourceAsStream(resource)) {
+            if (input != null) {
+                props.load(input);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return props;
+    }
+
+    private static int parseInt(String name, String value, int defaultValue) {
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid value for " + name + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    private static long parseLong(String name, String value, long defaultValue) {
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid value for " + name + ": " + value);
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example;
+
+import java.util.Arrays;
+
+/**
+ * 최근 호출 시간 표본으로 분위수(p95 등)를 추정합니다. (hedge 지연 계산용)
+ *
+ * 표본은 원형 버퍼에 쌓고, 분위수는 recomputeEvery 건마다 한 번만 정렬해서 다시 계산합니다.
+ */
+final class LatencyTracker {
+
+    private final long[] samples;
+    private final int percentile;
+    private final int recomputeEvery;
+    private int next;
+    private int count;
+    private int sinceRecompute;
+    private volatile long quantileNanos = -1;
+
+    LatencyTracker(int size, int percentile, int recomputeEvery) {
+        this.samples = new long[size];
+        this.percentile = percentile;
+        this.recomputeEvery = recomputeEvery;
+    }
+
+    void record(long nanos) {
+        long[] sorted = null;
+        synchronized (this) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            if (count < samples.length) {
+                count++;
+            }
+            if (++sinceRecompute >= recomputeEvery) {
+                sinceRecompute = 0;
+                sorted = Arrays.copyOf(samples, count);
+            }
+        }
+        if (sorted != null) {
+            // 정렬은 잠금 밖에서
+            Arrays.sort(sorted);
+            int index = Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * percentile / 100.0) - 1);
+            quantileNanos = sorted[Math.max(0, index)];
+        }
+    }
+
+    /**
+     * 추정 분위수 (표본이 아직 부족하면 -1)
+     */
+    long quantileNanos() {
+        return quantileNanos;
+    }
+}
@@ -0,0 +1,378 @@
+package com.example;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * employee 전체를 emp_no 구간으로 나누어 처리하는 백그라운드 작업 (재암호화, blind index 채우기 등)
+ *
+ * - emp_no 키 공간을 rangeSize 단위 구간 (k*rangeSize, (k+1)*rangeSize] 으로 나누고, threads 개의 커넥션으로 병렬 처리
+ * - 구간 안에서는 selectSql 로 batchSize 행씩 (emp_no, ssn_no) 를 keyset 방식으로 읽어 BatchWriter 에 넘김
+ * - maxRowsPerSecond 가 0보다 크면 전체 worker 합계가 그 속도를 넘지 않도록 배치 시작을 늦춤
+ * - stop() 후에는 진행 중인 배치까지만 처리하고 멈춤
+ *
+ * 하위 클래스는 구간 계획(plan)과 배치 하나의 처리(BatchWriter)만 구현합니다.
+ */
+public abstract class RangeJob {
+
+    public enum State {
+        RUNNING, STOPPING, STOPPED, COMPLETED, FAILED
+    }
+
+    private final String name;
+    private final String threadName;
+    protected final int threads;
+    protected final int rangeSize;
+    protected final int batchSize;
+    private final int maxRowsPerSecond;
+
+    private volatile State state = State.RUNNING;
+    private volatile String lastError;
+    private volatile long startedAtMillis;
+    private volatile long startNanos;
+    private volatile long finishedNanos;
+
+    private final AtomicInteger rangesTotal = new AtomicInteger();
+    private final AtomicInteger rangesDone = new AtomicInteger();
+    private volatile long rowsTotal;
+    protected final LongAdder rowsUpdated = new LongAdder();
+    protected final LongAdder rowsFailed = new LongAdder();
+    protected final LongAdder rowsSkipped = new LongAdder();
+
+    // throttle: 다음 배치가 시작할 수 있는 시각 (nanoTime)
+    private final AtomicLong nextSlot = new AtomicLong();
+
+    private ExecutorService workers;
+    private Thread coordinator;
+
+    /**
+     * @param name       로그/오류 메시지에 쓰는 작업 이름
+     * @param threadName coordinator 스레드 이름 (worker 는 뒤에 "-worker")
+     */
+    protected RangeJob(String name, String threadName, int threads, int rangeSize, int batchSize,
+            int maxRowsPerSecond) {
+        this.name = name;
+        this.threadName = threadName;
+        this.threads = Math.max(1, threads);
+        this.rangeSize = Math.max(1, rangeSize);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxRowsPerSecond = Math.max(0, maxRowsPerSecond);
+    }
+
+    /**
+     * 처리할 구간 목록을 만듭니다 (rowsTotal 설정 포함). 이미 끝난 구간은 countCompletedRange()로만 집계합니다.
+     */
+    protected abstract List<Range> plan(Connection conn) throws SQLException;
+
+    /**
+     * 구간 안에서 (emp_no, ssn_no) 를 읽는 SQL. 파라미터: (emp_no 하한 제외, 상한 포함, LIMIT), emp_no 순 정렬
+     */
+    protected abstract String selectSql();
+
+    /**
+     * 구간 하나를 처리할 커넥션(autoCommit=false)에서 배치 처리기를 엽니다.
+     */
+    protected abstract BatchWriter openWriter(Connection conn) throws SQLException;
+
+    /** 구간 처리 전에 coordinator 스레드에서 실행 (예: 이전 실행의 실패 행 재시도) */
+    protected void beforeRanges() throws SQLException, InterruptedException {
+    }
+
+    /** 모든 구간을 마친 뒤 coordinator 스레드에서 실행 (stop / 오류 없이 끝난 경우만) */
+    protected void afterRanges() throws SQLException {
+    }
+
+    /**
+     * 배치 하나의 처리 (읽은 행을 변환해 UPDATE 하고 commit)
+     */
+    protected interface BatchWriter extends AutoCloseable {
+        /**
+         * @param empNos emp_no 순으로 읽은 행 (구간 끝에서는 비어 있을 수 있음)
+         * @param values 같은 순서의 ssn_no
+         * @param last   이 배치까지 읽은 마지막 emp_no (다음 배치의 하한)
+         * @param done   구간의 마지막 배치인지
+         */
+        void write(Range range, List<Integer> empNos, List<String> values, long last, boolean done)
+                throws SQLException;
+
+        @Override
+        void close() throws SQLException;
+    }
+
+    /**
+     * 작업 하나만 실행되도록 보관하는 자리 (작업 종류마다 하나)
+     */
+    public static final class Slot<J extends RangeJob> {
+        private J current;
+
+        /**
+         * 작업을 백그라운드에서 시작합니다. 이미 실행 중인 작업이 있으면 IllegalStateException.
+         */
+        public synchronized J start(J job) {
+            RangeJob running = current;
+            if (running != null && running.isActive()) {
+                throw new IllegalStateException(running.name + " is already running");
+            }
+            current = job;
+            ((RangeJob) job).launch();
+            return job;
+        }
+
+        public synchronized J current() {
+            return current;
+        }
+
+        /**
+         * 웹앱 종료 시 진행 중인 배치까지만 마치고 멈춥니다.
+         */
+        public void shutdown() {
+            RangeJob job = current();
+            if (job != null && job.isActive()) {
+                job.stop();
+                job.awaitTermination(30, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    public boolean isActive() {
+        return state == State.RUNNING || state == State.STOPPING;
+    }
+
+    public void stop() {
+        if (state == State.RUNNING) {
+            state = State.STOPPING;
+        }
+    }
+
+    /** 하위 클래스의 배치 반복문이 계속 진행해도 되는지 */
+    protected final boolean isRunning() {
+        return state == State.RUNNING;
+    }
+
+    /** 작업을 FAILED 로 끝내도록 오류를 기록 */
+    protected final void fail(String message) {
+        lastError = message;
+    }
+
+    protected final void setRowsTotal(long rowsTotal) {
+        this.rowsTotal = rowsTotal;
+    }
+
+    /** 이전 실행에서 이미 끝난 구간 */
+    protected final void countCompletedRange() {
+        rangesTotal.incrementAndGet();
+        rangesDone.incrementAndGet();
+    }
+
+    /** minEmpNo 를 포함하는 정렬된 구간의 시작값 */
+    protected final long alignedStart(long minEmpNo) {
+        return Math.floorDiv(minEmpNo - 1, rangeSize) * (long) rangeSize;
+    }
+
+    /** from 부터 maxEmpNo 를 덮을 때까지 (k*rangeSize, (k+1)*rangeSize] 구간 */
+    protected final List<Range> ranges(long from, long maxEmpNo) {
+        List<Range> ranges = new ArrayList<>();
+        for (long start = from; start < maxEmpNo; start += rangeSize) {
+            ranges.add(new Range(start, start + rangeSize, start));
+        }
+        return ranges;
+    }
+
+    private void awaitTermination(long timeout, TimeUnit unit) {
+        try {
+            coordinator.join(unit.toMillis(timeout));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void launch() {
+        startedAtMillis = System.currentTimeMillis();
+        startNanos = System.nanoTime();
+        nextSlot.set(startNanos);
+        workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, threadName + "-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        coordinator = new Thread(this::run, threadName);
+        coordinator.setDaemon(true);
+        coordinator.start();
+    }
+
+    private void run() {
+        try {
+            List<Range> ranges;
+            try (Connection conn = DbPool.getInstance().getConnection()) {
+                ranges = plan(conn);
+            }
+            rangesTotal.addAndGet(ranges.size());
+            beforeRanges();
+            for (Range range : ranges) {
+                workers.submit(() -> processRange(range));
+            }
+            workers.shutdown();
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+            if (lastError == null && state == State.RUNNING) {
+                afterRanges();
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            lastError = e.getMessage();
+            workers.shutdownNow();
+        } finally {
+            finishedNanos = System.nanoTime();
+            if (lastError != null) {
+                state = State.FAILED;
+            } else if (state == State.STOPPING) {
+                state = State.STOPPED;
+            } else {
+                state = State.COMPLETED;
+            }
+            System.out.println(name + " finished: " + state + ", updated=" + getRowsUpdated()
+                    + ", failed=" + getRowsFailed() + ", skipped=" + getRowsSkipped());
+        }
+    }
+
+    private void processRange(Range range) {
+        try (Connection conn = DbPool.getInstance().getConnection();
+                PreparedStatement select = conn.prepareStatement(selectSql());
+                BatchWriter writer = openWriter(conn)) {
+
+            conn.setAutoCommit(false);
+            long last = range.lastEmpNo;
+            while (state == State.RUNNING) {
+                List<Integer> empNos = new ArrayList<>(batchSize);
+                List<String> values = new ArrayList<>(batchSize);
+                select.setLong(1, last);
+                select.setLong(2, range.end);
+                select.setInt(3, batchSize);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        empNos.add(rs.getInt(1));
+                        values.add(rs.getString(2));
+                    }
+                }
+
+                boolean done = empNos.size() < batchSize;
+                if (!empNos.isEmpty()) {
+                    throttle(empNos.size());
+                    last = empNos.get(empNos.size() - 1);
+                }
+                writer.write(range, empNos, values, last, done);
+
+                if (done) {
+                    rangesDone.incrementAndGet();
+                    break;
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            e.printStackTrace();
+            lastError = "Range (" + range.start + ", " + range.end + "]: " + e.getMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * maxRowsPerSecond 를 넘지 않도록 배치 시작 시각을 예약합니다 (전체 worker 공유).
+     */
+    protected final void throttle(int rows) throws InterruptedException {
+        if (maxRowsPerSecond <= 0) {
+            return;
+        }
+        long cost = rows * 1_000_000_000L / maxRowsPerSecond;
+        long now = System.nanoTime();
+        long slot = nextSlot.getAndAccumulate(cost, (prev, c) -> Math.max(prev, now) + c);
+        long wait = slot - now;
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    // --- Status ---
+
+    public State getState() {
+        return state;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public long getStartedAtMillis() {
+        return startedAtMillis;
+    }
+
+    public int getRangesTotal() {
+        return rangesTotal.get();
+    }
+
+    public int getRangesDone() {
+        return rangesDone.get();
+    }
+
+    public long getRowsTotal() {
+        return rowsTotal;
+    }
+
+    /** 처리한 행 수 (rowsTotal 대비 진행률 / ETA 기준) */
+    public long getRowsDone() {
+        return getRowsUpdated() + getRowsSkipped() + getRowsFailed();
+    }
+
+    public long getRowsUpdated() {
+        return rowsUpdated.sum();
+    }
+
+    public long getRowsFailed() {
+        return rowsFailed.sum();
+    }
+
+    public long getRowsSkipped() {
+        return rowsSkipped.sum();
+    }
+
+    /** 이번 실행의 처리 속도 */
+    public double getRowsPerSecond() {
+        long end = isActive() ? System.nanoTime() : finishedNanos;
+        double seconds = (end - startNanos) / 1e9;
+        long thisRun = getRowsUpdated() + getRowsSkipped() + getRowsFailed();
+        return seconds <= 0 ? 0 : thisRun / seconds;
+    }
+
+    /** 남은 예상 시간(초), 계산할 수 없으면 -1 */
+    public long getEtaSeconds() {
+        if (!isActive()) {
+            return 0;
+        }
+        double rate = getRowsPerSecond();
+        long remaining = Math.max(0, rowsTotal - getRowsDone());
+        return rate <= 0 ? -1 : (long) Math.ceil(remaining / rate);
+    }
+
+    /**
+     * (start, end] 구간과 마지막으로 처리한 emp_no
+     */
+    protected static final class Range {
+        public final long start;
+        public final long end;
+        public final long lastEmpNo;
+
+        public Range(long start, long end, long lastEmpNo) {
+            this.start = start;
+            this.end = end;
+            this.lastEmpNo = lastEmpNo;
+        }
+    }
+}
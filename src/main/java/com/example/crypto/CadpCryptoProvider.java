@@ -0,0 +1,63 @@
+package com.example.crypto;
+
+import com.example.CadpClient;
+import com.example.CryptoBytes;
+import com.example.CryptoResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * CadpClient 기반 provider (기본 protection policy 사용)
+ * cached=false 이면 복호화가 DecryptCache 를 거치지 않음 (byte[] reveal API)
+ */
+final class CadpCryptoProvider implements CryptoProvider {
+
+    private final CadpClient cadp = CadpClient.getInstance();
+    private final boolean cached;
+
+    CadpCryptoProvider(boolean cached) {
+        this.cached = cached;
+    }
+
+    @Override
+    public String getName() {
+        return "cadp";
+    }
+
+    @Override
+    public String enc(String plainText) {
+        if (plainText == null)
+            throw new IllegalArgumentException("입력 데이터는 null일 수 없습니다.");
+        String cipherText = cadp.enc(plainText);
+        if (cipherText == null)
+            throw new IllegalStateException("CADP protect failed");
+        return cipherText;
+    }
+
+    @Override
+    public String dec(String cipherText) {
+        if (cipherText == null)
+            throw new IllegalArgumentException("입력 데이터는 null일 수 없습니다.");
+        if (!cached) {
+            CryptoBytes result = cadp.reveal(cipherText.getBytes(StandardCharsets.UTF_8));
+            if (!result.isOk())
+                throw new IllegalStateException("CADP reveal failed: " + result.getError());
+            return new String(result.getValue(), StandardCharsets.UTF_8);
+        }
+        String plainText = cadp.dec(cipherText);
+        if (plainText == null)
+            throw new IllegalStateException("CADP reveal failed");
+        return plainText;
+    }
+
+    @Override
+    public List<CryptoResult> encAll(List<String> plainTexts) {
+        return cadp.encAll(plainTexts);
+    }
+
+    @Override
+    public List<CryptoResult> decAll(List<String> cipherTexts) {
+        return cached ? cadp.decAll(cipherTexts) : cadp.decAllUncached(cipherTexts);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.crypto;
+
+import com.example.CrdpClient;
+import com.example.CryptoResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * CrdpClient 기반 provider
+ * CRDP_BULK_ENABLED 이면 encAll / decAll 을 bulk API로, 아니면 동시 단건 요청으로 처리합니다.
+ * cached=false 이면 복호화가 DecryptCache 를 거치지 않음
+ */
+final class CrdpCryptoProvider implements CryptoProvider {
+
+    private final CrdpClient crdp = CrdpClient.getInstance();
+    private final boolean cached;
+
+    CrdpCryptoProvider(boolean cached) {
+        this.cached = cached;
+    }
+
+    @Override
+    public String getName() {
+        return "crdp";
+    }
+
+    @Override
+    public String enc(String plainText) throws Exception {
+        return crdp.enc(plainText);
+    }
+
+    @Override
+    public String dec(String cipherText) throws Exception {
+        return cached ? crdp.dec(cipherText) : crdp.decUncached(cipherText);
+    }
+
+    @Override
+    public List<CryptoResult> encAll(List<String> plainTexts) {
+        if (crdp.isBulkEnabled()) {
+            return crdp.encBatch(plainTexts);
+        }
+        if (plainTexts == null || plainTexts.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<CompletableFuture<String>> futures = new ArrayList<>(plainTexts.size());
+        for (String value : plainTexts) {
+            futures.add(crdp.encAsync(value));
+        }
+        return join(futures);
+    }
+
+    @Override
+    public List<CryptoResult> decAll(List<String> cipherTexts) {
+        if (cached) {
+            return crdp.isBulkEnabled() ? crdp.decBatch(cipherTexts) : crdp.decPage(cipherTexts);
+        }
+        if (crdp.isBulkEnabled()) {
+            return crdp.decBatchUncached(cipherTexts);
+        }
+        if (cipherTexts == null || cipherTexts.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<CompletableFuture<String>> futures = new ArrayList<>(cipherTexts.size());
+        for (String value : cipherTexts) {
+            futures.add(crdp.decAsyncUncached(value));
+        }
+        return join(futures);
+    }
+
+    private static List<CryptoResult> join(List<CompletableFuture<String>> futures) {
+        List<CryptoResult> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<String> future : futures) {
+            try {
+                results.add(CryptoResult.ok(future.join()));
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                results.add(CryptoResult.error(cause.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public CompletableFuture<String> encAsync(String plainText) {
+        return crdp.encAsync(plainText);
+    }
+
+    @Override
+    public CompletableFuture<String> decAsync(String cipherText) {
+        return cached ? crdp.decAsync(cipherText) : crdp.decAsyncUncached(cipherText);
+    }
+
+    @Override
+    public int getBatchSize() {
+        return crdp.getBatchSize();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.crypto;
+
+import com.example.CryptoResult;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 암복호화 provider 공통 인터페이스 (CADP / CRDP / 로컬 AES-GCM)
+ *
+ * - enc / dec: 단건, 실패 시 예외
+ * - encAll / decAll: 입력 순서대로 항목별 결과 (항목 실패는 해당 위치의 오류 결과)
+ * - encAsync / decAsync: 기본 구현은 호출 스레드에서 처리한 완료된 future (CADP / 로컬은 CPU 작업)
+ */
+public interface CryptoProvider {
+
+    List<String> NAMES = Collections.unmodifiableList(Arrays.asList("cadp", "crdp", "local"));
+
+    String getName();
+
+    String enc(String plainText) throws Exception;
+
+    String dec(String cipherText) throws Exception;
+
+    List<CryptoResult> encAll(List<String> plainTexts);
+
+    List<CryptoResult> decAll(List<String> cipherTexts);
+
+    default CompletableFuture<String> encAsync(String plainText) {
+        try {
+            return CompletableFuture.completedFuture(enc(plainText));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    default CompletableFuture<String> decAsync(String cipherText) {
+        try {
+            return CompletableFuture.completedFuture(dec(cipherText));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /** encAll / decAll 한 번에 넘기기 적당한 건수 */
+    default int getBatchSize() {
+        return 500;
+    }
+
+    /**
+     * DB에 저장된 ssn_no(CADP/CRDP 암호문)를 그대로 복호화할 수 있는지 여부 (로컬 provider는 자체 키만 사용)
+     */
+    default boolean readsStoredValues() {
+        return true;
+    }
+
+    /**
+     * provider: "cadp", "crdp" 또는 "local"
+     */
+    static CryptoProvider forName(String provider) {
+        return forName(provider, true);
+    }
+
+    /**
+     * 복호화가 DecryptCache 를 거치지 않는 provider (처리량 비교, export 처럼 값을 한 번씩만 읽는 작업용.
+     * local 은 원래 캐시를 쓰지 않음)
+     */
+    static CryptoProvider uncached(String provider) {
+        return forName(provider, false);
+    }
+
+    private static CryptoProvider forName(String provider, boolean cached) {
+        if ("cadp".equalsIgnoreCase(provider)) {
+            return new CadpCryptoProvider(cached);
+        }
+        if ("crdp".equalsIgnoreCase(provider)) {
+            return new CrdpCryptoProvider(cached);
+        }
+        if ("local".equalsIgnoreCase(provider)) {
+            return LocalAesGcmProvider.getInstance();
+        }
+        throw new IllegalArgumentException("Unknown provider: " + provider);
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.crypto;
+
+import com.example.CryptoResult;
+import com.example.Env;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * JDK AES-GCM 기반 로컬 provider (Key Manager / CRDP 없이 비교·개발용으로 사용)
+ *
+ * - 출력: Base64(IV 12바이트 || 암호문 || 태그 16바이트)
+ * - 키: LOCAL_CRYPTO_KEY (Base64, 16/24/32바이트). 없으면 기동 시 임의 키를 만들며, 재시작하면 이전 값을 복호화할 수 없음
+ *
+ * 운영 데이터 보호용이 아닙니다. DB에 저장된 ssn_no는 이 키로 암호화된 값이 아니므로 복호화할 수 없습니다.
+ */
+final class LocalAesGcmProvider implements CryptoProvider {
+
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+
+    private static volatile LocalAesGcmProvider instance;
+
+    private final SecretKeySpec key;
+    private final SecureRandom random = new SecureRandom();
+    private final ThreadLocal<Cipher> ciphers = ThreadLocal.withInitial(() -> {
+        try {
+            return Cipher.getInstance("AES/GCM/NoPadding");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private LocalAesGcmProvider() {
+        byte[] keyBytes;
+        String configured = Env.get("LOCAL_CRYPTO_KEY", null);
+        if (configured != null) {
+            keyBytes = Base64.getDecoder().decode(configured.trim());
+            if (keyBytes.length != 16 && keyBytes.length != 24 && keyBytes.length != 32) {
+                throw new IllegalArgumentException("LOCAL_CRYPTO_KEY must be 16, 24 or 32 bytes (Base64)");
+            }
+        } else {
+            keyBytes = new byte[32];
+            random.nextBytes(keyBytes);
+            System.out.println("LOCAL_CRYPTO_KEY not set, using an ephemeral AES-256 key for the local provider");
+        }
+        this.key = new SecretKeySpec(keyBytes, "AES");
+    }
+
+    static LocalAesGcmProvider getInstance() {
+        if (instance == null) {
+            synchronized (LocalAesGcmProvider.class) {
+                if (instance == null) {
+                    instance = new LocalAesGcmProvider();
+                }
+            }
+        }
+        return instance;
+    }
+
+    @Override
+    public String getName() {
+        return "local";
+    }
+
+    @Override
+    public String enc(String plainText) throws GeneralSecurityException {
+        if (plainText == null)
+            throw new IllegalArgumentException("입력 데이터는 null일 수 없습니다.");
+        byte[] iv = new byte[IV_BYTES];
+        random.nextBytes(iv);
+        Cipher cipher = ciphers.get();
+        cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+        byte[] plain = plainText.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer out = ByteBuffer.allocate(IV_BYTES + cipher.getOutputSize(plain.length));
+        out.put(iv);
+        cipher.doFinal(ByteBuffer.wrap(plain), out);
+        return Base64.getEncoder().encodeToString(out.array());
+    }
+
+    @Override
+    public String dec(String cipherText) throws GeneralSecurityException {
+        if (cipherText == null)
+            throw new IllegalArgumentException("입력 데이터는 null일 수 없습니다.");
+        byte[] data;
+        try {
+            data = Base64.getDecoder().decode(cipherText);
+        } catch (IllegalArgumentException e) {
+            throw new GeneralSecurityException("Not a local AES-GCM ciphertext");
+        }
+        if (data.length < IV_BYTES + TAG_BITS / 8) {
+            throw new GeneralSecurityException("Not a local AES-GCM ciphertext");
+        }
+        Cipher cipher = ciphers.get();
+        cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, data, 0, IV_BYTES));
+        byte[] plain = cipher.doFinal(data, IV_BYTES, data.length - IV_BYTES);
+        return new String(plain, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public List<CryptoResult> encAll(List<String> plainTexts) {
+        List<CryptoResult> results = new ArrayList<>(plainTexts.size());
+        for (String plainText : plainTexts) {
+            try {
+                results.add(CryptoResult.ok(enc(plainText)));
+            } catch (Exception e) {
+                results.add(CryptoResult.error(e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public List<CryptoResult> decAll(List<String> cipherTexts) {
+        List<CryptoResult> results = new ArrayList<>(cipherTexts.size());
+        for (String cipherText : cipherTexts) {
+            try {
+                results.add(CryptoResult.ok(dec(cipherText)));
+            } catch (Exception e) {
+                results.add(CryptoResult.error(e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public boolean readsStoredValues() {
+        return false;
+    }
+}
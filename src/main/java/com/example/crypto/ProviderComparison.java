@@ -0,0 +1,211 @@
+package com.example.crypto;
+
+import com.example.CryptoResult;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 같은 복호화 작업을 provider별로 실행해서 처리량(ops/s)과 지연 분포(p50/p99/p999)를 비교합니다.
+ *
+ * - 샘플이 암호문(DB의 ssn_no)이면 CADP/CRDP는 그대로 복호화하고, 로컬 provider는 샘플을 자체 키로 먼저 암호화
+ * - 샘플이 평문(synthetic)이면 모든 provider가 먼저 암호화 (준비 단계, 측정에서 제외)
+ * - 복호화는 DecryptCache 를 거치지 않음 (같은 샘플을 반복하므로 캐시를 쓰면 캐시 성능을 측정하게 됨)
+ * - mode=single: 항목마다 dec() 한 번, mode=batch: batchSize 건씩 decAll() 한 번 (지연은 호출 단위)
+ * - warmup 후 operations 건을 threads 개 스레드가 나눠서 처리
+ */
+public final class ProviderComparison {
+
+    public enum Mode {
+        SINGLE, BATCH
+    }
+
+    private final List<String> samples;
+    private final boolean samplesAreCipherText;
+    private final Mode mode;
+    private final int operations;
+    private final int warmupOperations;
+    private final int threads;
+    private final int batchSize;
+
+    public ProviderComparison(List<String> samples, boolean samplesAreCipherText, Mode mode, int operations,
+            int warmupOperations, int threads, int batchSize) {
+        if (samples.isEmpty()) {
+            throw new IllegalArgumentException("No samples");
+        }
+        this.samples = samples;
+        this.samplesAreCipherText = samplesAreCipherText;
+        this.mode = mode;
+        this.operations = operations;
+        this.warmupOperations = warmupOperations;
+        this.threads = threads;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * provider 하나를 측정합니다. 초기화/준비 실패는 결과의 error 항목으로 보고합니다.
+     */
+    public JsonObject run(String providerName) {
+        JsonObject result = new JsonObject();
+        result.addProperty("provider", providerName);
+        result.addProperty("mode", mode.name().toLowerCase());
+
+        CryptoProvider provider;
+        List<String> inputs;
+        try {
+            provider = CryptoProvider.uncached(providerName);
+            inputs = prepare(provider);
+        } catch (Exception e) {
+            e.printStackTrace();
+            result.addProperty("error", e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            return result;
+        }
+        result.addProperty("samples", inputs.size());
+
+        try {
+            if (warmupOperations > 0) {
+                measure(provider, inputs, warmupOperations);
+            }
+            Measurement m = measure(provider, inputs, operations);
+            long[] latencies = Arrays.copyOf(m.latencies, m.calls.get());
+            Arrays.sort(latencies);
+            result.addProperty("operations", m.items.get());
+            result.addProperty("errors", m.errors.get());
+            result.addProperty("seconds", m.elapsedNanos / 1e9);
+            result.addProperty("opsPerSecond", Math.round(m.items.get() * 1e9 / Math.max(1, m.elapsedNanos)));
+            JsonObject latency = new JsonObject();
+            latency.addProperty("p50", percentileMicros(latencies, 0.50));
+            latency.addProperty("p99", percentileMicros(latencies, 0.99));
+            latency.addProperty("p999", percentileMicros(latencies, 0.999));
+            latency.addProperty("max", latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1000);
+            result.add("latencyMicros", latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.addProperty("error", "Interrupted");
+        }
+        return result;
+    }
+
+    /**
+     * 측정 대상 암호문 목록 (준비 단계에서 실패한 항목은 제외)
+     */
+    private List<String> prepare(CryptoProvider provider) {
+        if (samplesAreCipherText && provider.readsStoredValues()) {
+            return samples;
+        }
+        List<String> prepared = new ArrayList<>(samples.size());
+        String lastError = null;
+        for (int from = 0; from < samples.size(); from += provider.getBatchSize()) {
+            List<String> chunk = samples.subList(from, Math.min(samples.size(), from + provider.getBatchSize()));
+            for (CryptoResult r : provider.encAll(chunk)) {
+                if (r.isOk()) {
+                    prepared.add(r.getValue());
+                } else {
+                    lastError = r.getError();
+                }
+            }
+        }
+        if (prepared.isEmpty()) {
+            throw new IllegalStateException("Sample encryption failed: " + lastError);
+        }
+        return prepared;
+    }
+
+    private Measurement measure(CryptoProvider provider, List<String> inputs, int totalItems)
+            throws InterruptedException {
+        int itemsPerCall = mode == Mode.BATCH ? batchSize : 1;
+        int totalCalls = (totalItems + itemsPerCall - 1) / itemsPerCall;
+        Measurement m = new Measurement(totalCalls);
+        AtomicInteger nextCall = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(threads);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "provider-compare");
+            t.setDaemon(true);
+            return t;
+        });
+        long start = System.nanoTime();
+        try {
+            for (int t = 0; t < threads; t++) {
+                pool.execute(() -> {
+                    try {
+                        int call;
+                        while ((call = nextCall.getAndIncrement()) < totalCalls) {
+                            int first = call * itemsPerCall;
+                            int count = Math.min(itemsPerCall, totalItems - first);
+                            long t0 = System.nanoTime();
+                            int failed = mode == Mode.BATCH ? decBatch(provider, inputs, first, count)
+                                    : decSingle(provider, inputs.get(first % inputs.size()));
+                            m.latencies[call] = System.nanoTime() - t0;
+                            m.calls.incrementAndGet();
+                            m.items.addAndGet(count);
+                            m.errors.addAndGet(failed);
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+        } finally {
+            pool.shutdownNow();
+            pool.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        m.elapsedNanos = System.nanoTime() - start;
+        return m;
+    }
+
+    private static int decSingle(CryptoProvider provider, String cipherText) {
+        try {
+            provider.dec(cipherText);
+            return 0;
+        } catch (Exception e) {
+            return 1;
+        }
+    }
+
+    private static int decBatch(CryptoProvider provider, List<String> inputs, int first, int count) {
+        List<String> batch = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            batch.add(inputs.get((first + i) % inputs.size()));
+        }
+        int failed = 0;
+        try {
+            for (CryptoResult r : provider.decAll(batch)) {
+                if (!r.isOk())
+                    failed++;
+            }
+        } catch (RuntimeException e) {
+            failed = count;
+        }
+        return failed;
+    }
+
+    private static long percentileMicros(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1000;
+    }
+
+    private static final class Measurement {
+        final long[] latencies;
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicLong items = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+        long elapsedNanos;
+
+        Measurement(int totalCalls) {
+            this.latencies = new long[totalCalls];
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 프로세스 전역 메트릭 레지스트리 및 Prometheus text format(0.0.4) 출력
+ *
+ * 메트릭은 클래스 로딩 시 static final 필드로 한 번만 등록하고, 요청 경로에서는 record/increment만 호출합니다.
+ */
+public final class Metrics {
+
+    private static final Map<String, Family> FAMILIES = new ConcurrentHashMap<>();
+    private static final List<Family> ORDER = new ArrayList<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * @param labels "key1", "value1", "key2", "value2" ... 형식
+     */
+    public static Histogram histogram(String name, String help, String... labels) {
+        return (Histogram) family(name, help, "histogram").child(labelString(labels), Histogram::new);
+    }
+
+    public static Counter counter(String name, String help, String... labels) {
+        return (Counter) family(name, help, "counter").child(labelString(labels), Counter::new);
+    }
+
+    /**
+     * 출력 시점에 값을 읽어오는 gauge (풀 크기 등)
+     */
+    public static void gauge(String name, String help, LongSupplier supplier, String... labels) {
+        family(name, help, "gauge").child(labelString(labels), () -> supplier);
+    }
+
+    /**
+     * 출력 시점에 값을 읽어오는 counter (기존 LongAdder 통계를 그대로 노출할 때 사용)
+     */
+    public static void counterFunction(String name, String help, LongSupplier supplier, String... labels) {
+        family(name, help, "counter").child(labelString(labels), () -> supplier);
+    }
+
+    private static Family family(String name, String help, String type) {
+        synchronized (ORDER) {
+            Family family = FAMILIES.get(name);
+            if (family == null) {
+                family = new Family(name, help, type);
+                FAMILIES.put(name, family);
+                ORDER.add(family);
+            } else if (!family.type.equals(type)) {
+                throw new IllegalArgumentException("Metric " + name + " already registered as " + family.type);
+            }
+            return family;
+        }
+    }
+
+    private static String labelString(String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("labels must be key/value pairs");
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (sb.length() > 0)
+                sb.append(',');
+            sb.append(labels[i]).append("=\"").append(labels[i + 1].replace("\"", "\\\"")).append('"');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 등록된 모든 메트릭을 Prometheus text format으로 출력합니다.
+     */
+    public static void writeTo(Writer out) throws IOException {
+        List<Family> families;
+        synchronized (ORDER) {
+            families = new ArrayList<>(ORDER);
+        }
+        for (Family family : families) {
+            family.writeTo(out);
+        }
+    }
+
+    private static final class Family {
+        final String name;
+        final String help;
+        final String type;
+        final Map<String, Object> children = new ConcurrentHashMap<>();
+        final List<String> childOrder = new ArrayList<>();
+
+        Family(String name, String help, String type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+
+        Object child(String labels, Supplier<Object> factory) {
+            synchronized (childOrder) {
+                Object child = children.get(labels);
+                if (child == null) {
+                    child = factory.get();
+                    children.put(labels, child);
+                    childOrder.add(labels);
+                }
+                return child;
+            }
+        }
+
+        void writeTo(Writer out) throws IOException {
+            List<String> labelSets;
+            synchronized (childOrder) {
+                labelSets = new ArrayList<>(childOrder);
+            }
+            out.write("# HELP " + name + " " + help + "\n");
+            out.write("# TYPE " + name + " " + type + "\n");
+            for (String labels : labelSets) {
+                Object child = children.get(labels);
+                if (child instanceof Histogram) {
+                    writeHistogram(out, labels, (Histogram) child);
+                } else if (child instanceof Counter) {
+                    out.write(name + braces(labels) + " " + ((Counter) child).get() + "\n");
+                } else if (child instanceof LongSupplier) {
+                    out.write(name + braces(labels) + " " + ((LongSupplier) child).getAsLong() + "\n");
+                }
+            }
+        }
+
+        private void writeHistogram(Writer out, String labels, Histogram histogram) throws IOException {
+            long[] counts = histogram.snapshot();
+            String prefix = labels.isEmpty() ? "" : labels + ",";
+            long cumulative = 0;
+            for (int i = 0; i < Histogram.BOUNDS_SECONDS.length; i++) {
+                cumulative += counts[i];
+                out.write(name + "_bucket{" + prefix + "le=\"" + formatBound(Histogram.BOUNDS_SECONDS[i]) + "\"} "
+                        + cumulative + "\n");
+            }
+            cumulative += counts[counts.length - 1];
+            out.write(name + "_bucket{" + prefix + "le=\"+Inf\"} " + cumulative + "\n");
+            out.write(name + "_sum" + braces(labels) + " " + String.format(Locale.ROOT, "%.6f", histogram.sumSeconds()) + "\n");
+            out.write(name + "_count" + braces(labels) + " " + cumulative + "\n");
+        }
+
+        private static String braces(String labels) {
+            return labels.isEmpty() ? "" : "{" + labels + "}";
+        }
+
+        private static String formatBound(double bound) {
+            return bound == Math.rint(bound) ? String.valueOf((long) bound) + ".0" : String.valueOf(bound);
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package com.example.rotation;
+
+import com.example.CryptoResult;
+import com.example.DbPool;
+import com.example.EmployeeTableVersion;
+import com.example.RangeJob;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ssn_no 재암호화(키/정책 로테이션) 작업
+ *
+ * - 구간 안에서는 batchSize 행씩 읽어 Rewrapper로 재암호화하고, 배치 UPDATE + 체크포인트 갱신을 한 트랜잭션으로 commit
+ * - UPDATE 는 "WHERE emp_no = ? AND ssn_no = <읽은 값>" 이므로 그 사이 앱이 수정한 행은 덮어쓰지 않고 건너뜀
+ * - 체크포인트(ssn_rotation_checkpoint)가 남아 있으므로 같은 jobId로 다시 시작하면 중단 지점부터 이어서 진행
+ * - 재암호화에 실패한 행은 ssn_rotation_failed 에 기록하고 (체크포인트 rows_done 에는 포함하지 않음),
+ *   같은 jobId로 다시 시작하면 구간 처리 전에 먼저 재시도. 실패한 행이 남아 있으면 작업은 FAILED 로 끝남
+ *
+ * 배치마다 짧게 commit 하므로 작업 중에도 애플리케이션은 계속 조회/등록할 수 있습니다.
+ * 구간 분할 / 병렬 처리 / 속도 제한 / 중지는 RangeJob 참고.
+ */
+public class KeyRotationJob extends RangeJob {
+
+    private static final String CHECKPOINT_DDL = "CREATE TABLE IF NOT EXISTS ssn_rotation_checkpoint ("
+            + "job_id VARCHAR(64) NOT NULL, range_start INT NOT NULL, range_end INT NOT NULL, "
+            + "last_emp_no INT NOT NULL, rows_done BIGINT NOT NULL DEFAULT 0, rows_failed BIGINT NOT NULL DEFAULT 0, "
+            + "done TINYINT(1) NOT NULL DEFAULT 0, "
+            + "updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP, "
+            + "PRIMARY KEY (job_id, range_start))";
+    private static final String LOAD_CHECKPOINTS_SQL = "SELECT range_start, range_end, last_emp_no, rows_done, rows_failed, done FROM ssn_rotation_checkpoint WHERE job_id = ? ORDER BY range_start";
+    private static final String INSERT_CHECKPOINT_SQL = "INSERT IGNORE INTO ssn_rotation_checkpoint (job_id, range_start, range_end, last_emp_no) VALUES (?, ?, ?, ?)";
+    private static final String FAILED_DDL = "CREATE TABLE IF NOT EXISTS ssn_rotation_failed ("
+            + "job_id VARCHAR(64) NOT NULL, emp_no INT NOT NULL, error VARCHAR(255), "
+            + "updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP, "
+            + "PRIMARY KEY (job_id, emp_no))";
+    private static final String RECORD_FAILED_SQL = "INSERT INTO ssn_rotation_failed (job_id, emp_no, error) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE error = VALUES(error)";
+    private static final String SELECT_FAILED_SQL = "SELECT f.emp_no, e.ssn_no FROM ssn_rotation_failed f LEFT JOIN employee e ON e.emp_no = f.emp_no WHERE f.job_id = ? AND f.emp_no > ? ORDER BY f.emp_no LIMIT ?";
+    private static final String CLEAR_FAILED_SQL = "DELETE FROM ssn_rotation_failed WHERE job_id = ? AND emp_no = ?";
+    private static final String COUNT_FAILED_SQL = "SELECT COUNT(*) FROM ssn_rotation_failed WHERE job_id = ?";
+    private static final String CREDIT_RETRY_SQL = "UPDATE ssn_rotation_checkpoint SET rows_done = rows_done + 1, rows_failed = GREATEST(rows_failed - 1, 0) WHERE job_id = ? AND range_start < ? AND range_end >= ?";
+    private static final String UPDATE_CHECKPOINT_SQL = "UPDATE ssn_rotation_checkpoint SET last_emp_no = ?, rows_done = rows_done + ?, rows_failed = rows_failed + ?, done = ? WHERE job_id = ? AND range_start = ?";
+    private static final String KEY_SPACE_SQL = "SELECT MIN(emp_no), MAX(emp_no), COUNT(ssn_no) FROM employee";
+    private static final String SELECT_SQL = "SELECT emp_no, ssn_no FROM employee WHERE emp_no > ? AND emp_no <= ? AND ssn_no IS NOT NULL AND ssn_no <> '' ORDER BY emp_no LIMIT ?";
+    private static final String UPDATE_SQL = "UPDATE employee SET ssn_no = ? WHERE emp_no = ? AND ssn_no = ?";
+
+    private static final Slot<KeyRotationJob> SLOT = new Slot<>();
+
+    private final String jobId;
+    private final String provider;
+    private final String fromPolicy;
+    private final String toPolicy;
+    private final Rewrapper rewrapper;
+
+    private volatile long rowsDoneBefore;
+
+    public KeyRotationJob(String jobId, String provider, String fromPolicy, String toPolicy, int threads,
+            int rangeSize, int batchSize, int maxRowsPerSecond) {
+        super("SSN rotation job '" + jobId + "'", "ssn-rotation-" + jobId, threads, rangeSize, batchSize,
+                maxRowsPerSecond);
+        if (jobId == null || jobId.isEmpty() || jobId.length() > 64) {
+            throw new IllegalArgumentException("jobId must be 1-64 characters");
+        }
+        if (fromPolicy == null || fromPolicy.isEmpty() || toPolicy == null || toPolicy.isEmpty()) {
+            throw new IllegalArgumentException("from/to policy is required");
+        }
+        this.jobId = jobId;
+        this.provider = provider;
+        this.fromPolicy = fromPolicy;
+        this.toPolicy = toPolicy;
+        this.rewrapper = Rewrapper.forProvider(provider, fromPolicy, toPolicy);
+    }
+
+    /**
+     * 작업을 백그라운드에서 시작합니다. 이미 실행 중인 작업이 있으면 IllegalStateException.
+     */
+    public static KeyRotationJob start(KeyRotationJob job) {
+        return SLOT.start(job);
+    }
+
+    public static KeyRotationJob current() {
+        return SLOT.current();
+    }
+
+    /**
+     * 웹앱 종료 시 진행 중인 배치까지만 마치고 멈춥니다 (체크포인트 유지).
+     */
+    public static void shutdown() {
+        SLOT.shutdown();
+    }
+
+    /**
+     * 체크포인트 테이블을 준비하고 처리할 구간 목록을 만듭니다.
+     * 같은 jobId의 체크포인트가 있으면 그 구간 경계를 그대로 쓰고, 이후 늘어난 emp_no 구간만 추가합니다.
+     */
+    @Override
+    protected List<Range> plan(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(CHECKPOINT_DDL);
+            stmt.execute(FAILED_DDL);
+        }
+
+        long minEmpNo;
+        long maxEmpNo;
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(KEY_SPACE_SQL)) {
+            rs.next();
+            minEmpNo = rs.getLong(1);
+            maxEmpNo = rs.getLong(2);
+            setRowsTotal(rs.getLong(3));
+        }
+
+        List<Range> ranges = new ArrayList<>();
+        long coveredUpTo = Long.MIN_VALUE;
+        long doneBefore = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(LOAD_CHECKPOINTS_SQL)) {
+            stmt.setString(1, jobId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Range range = new Range(rs.getLong(1), rs.getLong(2), rs.getLong(3));
+                    doneBefore += rs.getLong(4);
+                    coveredUpTo = Math.max(coveredUpTo, range.end);
+                    if (rs.getBoolean(6)) {
+                        countCompletedRange();
+                    } else {
+                        ranges.add(range);
+                    }
+                }
+            }
+        }
+        rowsDoneBefore = doneBefore;
+
+        List<Range> added = ranges(coveredUpTo == Long.MIN_VALUE ? alignedStart(minEmpNo) : coveredUpTo, maxEmpNo);
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_CHECKPOINT_SQL)) {
+            for (Range range : added) {
+                stmt.setString(1, jobId);
+                stmt.setLong(2, range.start);
+                stmt.setLong(3, range.end);
+                stmt.setLong(4, range.lastEmpNo);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+        ranges.addAll(added);
+        return ranges;
+    }
+
+    @Override
+    protected String selectSql() {
+        return SELECT_SQL;
+    }
+
+    /**
+     * 재암호화 결과를 배치 UPDATE 하고, 같은 트랜잭션에서 실패 행 기록과 체크포인트를 갱신합니다.
+     */
+    @Override
+    protected BatchWriter openWriter(Connection conn) throws SQLException {
+        PreparedStatement update = conn.prepareStatement(UPDATE_SQL);
+        PreparedStatement checkpoint = conn.prepareStatement(UPDATE_CHECKPOINT_SQL);
+        PreparedStatement recordFailed = conn.prepareStatement(RECORD_FAILED_SQL);
+        return new BatchWriter() {
+            @Override
+            public void write(Range range, List<Integer> empNos, List<String> cipherTexts, long last, boolean done)
+                    throws SQLException {
+                int failed = 0;
+                int rotated = 0;
+                if (!empNos.isEmpty()) {
+                    List<CryptoResult> rewrapped = rewrapper.rewrap(cipherTexts);
+                    int batched = 0;
+                    for (int i = 0; i < empNos.size(); i++) {
+                        CryptoResult result = rewrapped.get(i);
+                        if (!result.isOk()) {
+                            // 체크포인트는 이 행을 지나가므로 재시도 대상으로 기록
+                            failed++;
+                            recordFailed(recordFailed, empNos.get(i), result.getError());
+                            System.err.println("SSN rotation failed for emp_no " + empNos.get(i) + ": " + result.getError());
+                            continue;
+                        }
+                        update.setString(1, result.getValue());
+                        update.setInt(2, empNos.get(i));
+                        update.setString(3, cipherTexts.get(i));
+                        update.addBatch();
+                        batched++;
+                    }
+                    if (batched > 0) {
+                        for (int count : update.executeBatch()) {
+                            // 0 = 읽은 뒤 앱이 값을 바꾼 행 (덮어쓰지 않음)
+                            if (count != 0) {
+                                rotated++;
+                            }
+                        }
+                    }
+                    if (failed > 0) {
+                        recordFailed.executeBatch();
+                    }
+                    rowsUpdated.add(rotated);
+                    rowsSkipped.add(batched - rotated);
+                    rowsFailed.add(failed);
+                }
+
+                checkpoint.setLong(1, last);
+                // rows_done 은 실제로 재암호화한 행만 (실패 / 건너뛴 행 제외)
+                checkpoint.setLong(2, rotated);
+                checkpoint.setLong(3, failed);
+                checkpoint.setBoolean(4, done);
+                checkpoint.setString(5, jobId);
+                checkpoint.setLong(6, range.start);
+                checkpoint.executeUpdate();
+                conn.commit();
+                EmployeeTableVersion.increment();
+            }
+
+            @Override
+            public void close() throws SQLException {
+                update.close();
+                checkpoint.close();
+                recordFailed.close();
+            }
+        };
+    }
+
+    /**
+     * 이전 실행에서 실패한 행(ssn_rotation_failed)을 다시 재암호화합니다. 성공하거나 더 이상 대상이 아닌 행
+     * (삭제됨 / 그 사이 앱이 값을 바꿈)은 기록에서 지우고, 다시 실패하면 오류만 갱신합니다.
+     */
+    @Override
+    protected void beforeRanges() throws SQLException, InterruptedException {
+        try (Connection conn = DbPool.getInstance().getConnection();
+                PreparedStatement select = conn.prepareStatement(SELECT_FAILED_SQL);
+                PreparedStatement update = conn.prepareStatement(UPDATE_SQL);
+                PreparedStatement clear = conn.prepareStatement(CLEAR_FAILED_SQL);
+                PreparedStatement recordFailed = conn.prepareStatement(RECORD_FAILED_SQL);
+                PreparedStatement credit = conn.prepareStatement(CREDIT_RETRY_SQL)) {
+
+            conn.setAutoCommit(false);
+            long last = Long.MIN_VALUE;
+            while (isRunning()) {
+                List<Integer> empNos = new ArrayList<>(batchSize);
+                List<String> cipherTexts = new ArrayList<>(batchSize);
+                select.setString(1, jobId);
+                select.setLong(2, last);
+                select.setInt(3, batchSize);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        empNos.add(rs.getInt(1));
+                        cipherTexts.add(rs.getString(2));
+                    }
+                }
+                if (empNos.isEmpty()) {
+                    break;
+                }
+                last = empNos.get(empNos.size() - 1);
+
+                List<Integer> targets = new ArrayList<>(empNos.size());
+                List<String> targetValues = new ArrayList<>(empNos.size());
+                for (int i = 0; i < empNos.size(); i++) {
+                    if (cipherTexts.get(i) == null || cipherTexts.get(i).isEmpty()) {
+                        clearFailed(clear, empNos.get(i));
+                    } else {
+                        targets.add(empNos.get(i));
+                        targetValues.add(cipherTexts.get(i));
+                    }
+                }
+                if (!targets.isEmpty()) {
+                    throttle(targets.size());
+                    List<CryptoResult> rewrapped = rewrapper.rewrap(targetValues);
+                    for (int i = 0; i < targets.size(); i++) {
+                        int empNo = targets.get(i);
+                        CryptoResult result = rewrapped.get(i);
+                        if (!result.isOk()) {
+                            rowsFailed.increment();
+                            recordFailed(recordFailed, empNo, result.getError());
+                            System.err.println("SSN rotation retry failed for emp_no " + empNo + ": " + result.getError());
+                            continue;
+                        }
+                        update.setString(1, result.getValue());
+                        update.setInt(2, empNo);
+                        update.setString(3, targetValues.get(i));
+                        if (update.executeUpdate() != 0) {
+                            rowsUpdated.increment();
+                            credit.setString(1, jobId);
+                            credit.setInt(2, empNo);
+                            credit.setInt(3, empNo);
+                            credit.addBatch();
+                        } else {
+                            rowsSkipped.increment();
+                        }
+                        clearFailed(clear, empNo);
+                    }
+                }
+                clear.executeBatch();
+                recordFailed.executeBatch();
+                credit.executeBatch();
+                conn.commit();
+                EmployeeTableVersion.increment();
+            }
+        }
+    }
+
+    /**
+     * 실패한 행이 남아 있으면 작업을 FAILED 로 끝냄 (같은 jobId로 다시 시작하면 재시도)
+     */
+    @Override
+    protected void afterRanges() throws SQLException {
+        try (Connection conn = DbPool.getInstance().getConnection();
+                PreparedStatement stmt = conn.prepareStatement(COUNT_FAILED_SQL)) {
+            stmt.setString(1, jobId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                long pending = rs.next() ? rs.getLong(1) : 0;
+                if (pending > 0) {
+                    fail(pending + " rows could not be rotated (ssn_rotation_failed), start the same jobId again to retry");
+                }
+            }
+        }
+    }
+
+    private void recordFailed(PreparedStatement recordFailed, int empNo, String error) throws SQLException {
+        recordFailed.setString(1, jobId);
+        recordFailed.setInt(2, empNo);
+        recordFailed.setString(3, error == null || error.length() <= 255 ? error : error.substring(0, 255));
+        recordFailed.addBatch();
+    }
+
+    private void clearFailed(PreparedStatement clear, int empNo) throws SQLException {
+        clear.setString(1, jobId);
+        clear.setInt(2, empNo);
+        clear.addBatch();
+    }
+
+    // --- Status ---
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public String getFromPolicy() {
+        return fromPolicy;
+    }
+
+    public String getToPolicy() {
+        return toPolicy;
+    }
+
+    /** 이전 실행(체크포인트)까지 포함해 재암호화를 마친 행 수 (실패 / 건너뛴 행 제외) */
+    @Override
+    public long getRowsDone() {
+        return rowsDoneBefore + getRowsUpdated();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.rotation;
+
+import com.example.CadpClient;
+import com.example.CrdpClient;
+import com.example.CryptoBytes;
+import com.example.CryptoResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 기존 policy로 암호화된 값 묶음을 새 policy(또는 같은 policy의 최신 키 버전)로 다시 암호화합니다.
+ * 입력 순서대로 항목별 결과를 반환합니다.
+ */
+public interface Rewrapper {
+
+    List<CryptoResult> rewrap(List<String> cipherTexts);
+
+    /**
+     * provider: "cadp" 또는 "crdp"
+     */
+    static Rewrapper forProvider(String provider, String fromPolicy, String toPolicy) {
+        if ("cadp".equalsIgnoreCase(provider)) {
+            return cadp(fromPolicy, toPolicy);
+        }
+        if ("crdp".equalsIgnoreCase(provider)) {
+            return crdp(fromPolicy, toPolicy);
+        }
+        throw new IllegalArgumentException("Unknown provider: " + provider);
+    }
+
+    /**
+     * 같은 policy면 CryptoManager.reprotect (평문을 꺼내지 않음), 다르면 reveal(from) -> protect(to)
+     */
+    static Rewrapper cadp(String fromPolicy, String toPolicy) {
+        CadpClient cadp = CadpClient.getInstance();
+        if (fromPolicy.equals(toPolicy)) {
+            return cipherTexts -> cadp.reprotect(cipherTexts, toPolicy);
+        }
+        // 평문은 String으로 만들지 않고 byte[]로만 다룬 뒤 바로 지움 (복호화 캐시도 거치지 않음)
+        return cipherTexts -> {
+            List<CryptoResult> results = new ArrayList<>(cipherTexts.size());
+            for (String cipherText : cipherTexts) {
+                if (cipherText == null) {
+                    results.add(CryptoResult.error("입력 데이터는 null일 수 없습니다."));
+                    continue;
+                }
+                CryptoBytes plain = cadp.reveal(fromPolicy, cipherText.getBytes(StandardCharsets.UTF_8));
+                if (!plain.isOk()) {
+                    results.add(CryptoResult.error("Decryption failed: " + plain.getError()));
+                    continue;
+                }
+                CryptoBytes rewrapped = cadp.protect(toPolicy, plain.getValue());
+                Arrays.fill(plain.getValue(), (byte) 0);
+                results.add(rewrapped.isOk()
+                        ? CryptoResult.ok(new String(rewrapped.getValue(), StandardCharsets.UTF_8))
+                        : CryptoResult.error("Encryption failed: " + rewrapped.getError()));
+            }
+            return results;
+        };
+    }
+
+    /**
+     * revealbulk(from) -> protectbulk(to)
+     */
+    static Rewrapper crdp(String fromPolicy, String toPolicy) {
+        CrdpClient crdp = CrdpClient.getInstance();
+        return cipherTexts -> {
+            List<CryptoResult> revealed = crdp.decBatchUncached(cipherTexts, fromPolicy);
+
+            List<Integer> indexes = new ArrayList<>(revealed.size());
+            List<String> plains = new ArrayList<>(revealed.size());
+            for (int i = 0; i < revealed.size(); i++) {
+                if (revealed.get(i).isOk()) {
+                    indexes.add(i);
+                    plains.add(revealed.get(i).getValue());
+                }
+            }
+
+            List<CryptoResult> results = new ArrayList<>(revealed);
+            List<CryptoResult> protectedValues = crdp.encBatch(plains, toPolicy);
+            for (int i = 0; i < indexes.size(); i++) {
+                results.set(indexes.get(i), protectedValues.get(i));
+            }
+            return results;
+        };
+    }
+}
@@ -0,0 +1,397 @@
+package com.example.search;
+
+import com.example.DbPool;
+import com.example.Env;
+import com.example.metrics.Metrics;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * employee.first_name / last_name 검색용 프로세스 내 색인 (prefix / exact)
+ *
+ * - 컬럼마다 정렬된 이름 배열 + 이름별 emp_no 목록(int 배열 하나에 연속 저장)으로 구성, 조회는 이진 탐색 후 구간 순회
+ * - 기동 시 백그라운드 스레드에서 employee 전체를 한 번 스트리밍으로 읽어서 생성
+ * - 이후 등록된 행은 작은 delta(TreeMap)에 추가하고, DELTA_COMPACT_SIZE 건이 쌓이면 본 색인과 합침
+ * - 이름은 trim + 소문자로 정규화해서 대소문자 구분 없이 검색
+ *
+ * 이 애플리케이션을 거치지 않은 변경(다른 인스턴스, DB 직접 수정)은 다음 기동 시 반영됩니다.
+ * NAME_INDEX_ENABLED=false 이면 생성하지 않습니다.
+ */
+public final class EmployeeNameIndex {
+
+    public enum State {
+        DISABLED, BUILDING, READY, FAILED
+    }
+
+    private static final int DELTA_COMPACT_SIZE = 4096;
+    private static final String SCAN_SQL = "SELECT emp_no, first_name, last_name FROM employee";
+
+    private static final EmployeeNameIndex INSTANCE = new EmployeeNameIndex();
+
+    static {
+        Metrics.gauge("app_name_index_rows", "Rows in the employee name index", () -> INSTANCE.getRows());
+        Metrics.gauge("app_name_index_bytes", "Estimated employee name index memory", () -> INSTANCE.estimateBytes());
+    }
+
+    private final Column firstNames = new Column();
+    private final Column lastNames = new Column();
+
+    private volatile State state = State.DISABLED;
+    private volatile boolean stopRequested;
+    private final AtomicLong rows = new AtomicLong();
+    private volatile long buildMillis;
+    private volatile String lastError;
+
+    private EmployeeNameIndex() {
+    }
+
+    public static EmployeeNameIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 백그라운드 스레드에서 색인 생성 (웹앱 기동 시 한 번)
+     */
+    public synchronized void buildAsync() {
+        if ("false".equalsIgnoreCase(Env.get("NAME_INDEX_ENABLED", "true")) || state == State.BUILDING) {
+            return;
+        }
+        state = State.BUILDING;
+        stopRequested = false;
+        Thread t = new Thread(this::build, "name-index-build");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /**
+     * 진행 중인 생성 중단 (웹앱 종료 시)
+     */
+    public void shutdown() {
+        stopRequested = true;
+    }
+
+    private void build() {
+        long start = System.nanoTime();
+        Builder first = new Builder();
+        Builder last = new Builder();
+        long count = 0;
+        try (Connection conn = DbPool.getInstance().getConnection();
+                PreparedStatement stmt = conn.prepareStatement(SCAN_SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(Integer.MIN_VALUE); // Connector/J: 행 단위 streaming
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (stopRequested) {
+                        state = State.FAILED;
+                        lastError = "Stopped";
+                        return;
+                    }
+                    int empNo = rs.getInt(1);
+                    first.add(normalize(rs.getString(2)), empNo);
+                    last.add(normalize(rs.getString(3)), empNo);
+                    count++;
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            e.printStackTrace();
+            lastError = e.getMessage();
+            state = State.FAILED;
+            return;
+        }
+        // 생성 중에 등록된 행은 delta에 남아 있으므로 그대로 유지 (중복은 조회 시 제거)
+        firstNames.replaceBase(first.build());
+        lastNames.replaceBase(last.build());
+        rows.addAndGet(count);
+        buildMillis = (System.nanoTime() - start) / 1_000_000;
+        state = State.READY;
+        System.out.println("Employee name index built: " + count + " rows in " + buildMillis + " ms, ~"
+                + estimateBytes() / 1024 + " KB");
+    }
+
+    /**
+     * 새로 등록된 행 반영 (등록 commit 후 호출)
+     * 생성 중이거나 준비된 상태에서만 반영 (비활성화 / 생성 실패 상태에서는 delta 가 계속 쌓이기만 하므로 무시,
+     * 다음 생성 시 전체를 다시 읽음)
+     */
+    public void add(int empNo, String firstName, String lastName) {
+        State current = state;
+        if (current != State.BUILDING && current != State.READY) {
+            return;
+        }
+        firstNames.add(normalize(firstName), empNo);
+        lastNames.add(normalize(lastName), empNo);
+        rows.incrementAndGet();
+    }
+
+    /**
+     * 이름 조건에 맞는 emp_no 목록 (오름차순, 중복 없음). 둘 다 주어지면 교집합
+     *
+     * @param exact false면 prefix 검색
+     * @throws IllegalStateException 색인이 아직 준비되지 않은 경우
+     */
+    public int[] search(String firstName, String lastName, boolean exact) {
+        if (state != State.READY) {
+            throw new IllegalStateException("Name index is not ready (" + state + ")");
+        }
+        int[] result = null;
+        if (firstName != null && !firstName.isEmpty()) {
+            result = firstNames.search(normalize(firstName), exact);
+        }
+        if (lastName != null && !lastName.isEmpty()) {
+            int[] matches = lastNames.search(normalize(lastName), exact);
+            result = result == null ? matches : intersect(result, matches);
+        }
+        return result == null ? new int[0] : result;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public long getRows() {
+        return rows.get();
+    }
+
+    public long getBuildMillis() {
+        return buildMillis;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public int getDistinctNames() {
+        return firstNames.distinctKeys() + lastNames.distinctKeys();
+    }
+
+    /**
+     * 색인이 차지하는 대략적인 heap 크기 (문자열 / 배열 헤더 포함 추정치)
+     */
+    public long estimateBytes() {
+        return firstNames.estimateBytes() + lastNames.estimateBytes();
+    }
+
+    private static String normalize(String name) {
+        return name == null ? null : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /**
+     * 불변 색인: keys[i] 의 emp_no 목록은 postings[offsets[i] .. offsets[i + 1]) (오름차순)
+     */
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new String[0], new int[] { 0 }, new int[0]);
+
+        final String[] keys;
+        final int[] offsets;
+        final int[] postings;
+
+        Snapshot(String[] keys, int[] offsets, int[] postings) {
+            this.keys = keys;
+            this.offsets = offsets;
+            this.postings = postings;
+        }
+
+        /** prefix 이상인 첫 key 위치 */
+        int lowerBound(String prefix) {
+            int lo = 0, hi = keys.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[mid].compareTo(prefix) < 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+
+    /**
+     * 컬럼 하나의 색인 (본 색인 + 기동 후 등록분 delta)
+     */
+    private static final class Column {
+        private volatile Snapshot base = Snapshot.EMPTY;
+        private final TreeMap<String, IntList> delta = new TreeMap<>();
+        private int deltaPostings;
+        // 최초 생성 전에는 합치지 않음 (생성 결과가 base를 덮어쓰므로)
+        private boolean baseBuilt;
+
+        synchronized void replaceBase(Snapshot snapshot) {
+            base = snapshot;
+            baseBuilt = true;
+        }
+
+        synchronized void add(String key, int empNo) {
+            if (key == null) {
+                return;
+            }
+            delta.computeIfAbsent(key, k -> new IntList()).add(empNo);
+            if (++deltaPostings >= DELTA_COMPACT_SIZE && baseBuilt) {
+                compact();
+            }
+        }
+
+        /** delta를 본 색인에 합침 (호출 측에서 잠금 보유) */
+        private void compact() {
+            Builder builder = new Builder();
+            Snapshot current = base;
+            for (int i = 0; i < current.keys.length; i++) {
+                for (int p = current.offsets[i]; p < current.offsets[i + 1]; p++) {
+                    builder.add(current.keys[i], current.postings[p]);
+                }
+            }
+            for (Map.Entry<String, IntList> e : delta.entrySet()) {
+                IntList list = e.getValue();
+                for (int i = 0; i < list.size; i++) {
+                    builder.add(e.getKey(), list.values[i]);
+                }
+            }
+            base = builder.build();
+            delta.clear();
+            deltaPostings = 0;
+        }
+
+        int[] search(String key, boolean exact) {
+            Snapshot snapshot;
+            IntList out = new IntList();
+            int ranges = 0;
+            // base 와 delta 를 같은 잠금 안에서 읽음 (따로 읽으면 그 사이 compact 된 행이 양쪽 모두에서 빠질 수 있음)
+            synchronized (this) {
+                snapshot = base;
+                if (!delta.isEmpty()) {
+                    Map<String, IntList> range = exact
+                            ? (delta.containsKey(key) ? Map.of(key, delta.get(key)) : Map.of())
+                            : delta.subMap(key, true, key + Character.MAX_VALUE, false);
+                    for (IntList list : range.values()) {
+                        out.addRange(list.values, 0, list.size);
+                        ranges += 2; // delta 목록은 정렬되어 있지 않음
+                    }
+                }
+            }
+            // base 는 불변이므로 잠금 밖에서 순회
+            int i = snapshot.lowerBound(key);
+            while (i < snapshot.keys.length
+                    && (exact ? snapshot.keys[i].equals(key) : snapshot.keys[i].startsWith(key))) {
+                out.addRange(snapshot.postings, snapshot.offsets[i], snapshot.offsets[i + 1]);
+                ranges++;
+                i++;
+            }
+            // 본 색인의 이름 하나만 일치하면 이미 정렬된 상태
+            return ranges <= 1 ? out.toArray() : out.sortedDistinct();
+        }
+
+        int distinctKeys() {
+            return base.keys.length;
+        }
+
+        long estimateBytes() {
+            Snapshot snapshot = base;
+            long bytes = 16 + 4L * snapshot.keys.length;
+            for (String key : snapshot.keys) {
+                // String 객체(24) + byte[] 헤더(16) + Latin-1 문자, 8바이트 정렬
+                bytes += 24 + align(16 + key.length());
+            }
+            bytes += align(16 + 4L * snapshot.offsets.length) + align(16 + 4L * snapshot.postings.length);
+            synchronized (this) {
+                bytes += 64L * delta.size() + 4L * deltaPostings;
+            }
+            return bytes;
+        }
+
+        private static long align(long bytes) {
+            return (bytes + 7) & ~7L;
+        }
+    }
+
+    /**
+     * (이름, emp_no) 쌍을 모아서 Snapshot 생성
+     */
+    private static final class Builder {
+        private final Map<String, IntList> groups = new HashMap<>();
+
+        void add(String key, int empNo) {
+            if (key != null) {
+                groups.computeIfAbsent(key, k -> new IntList()).add(empNo);
+            }
+        }
+
+        Snapshot build() {
+            List<String> sorted = new ArrayList<>(groups.keySet());
+            sorted.sort(null);
+            String[] keys = sorted.toArray(new String[0]);
+            int[] offsets = new int[keys.length + 1];
+            IntList postings = new IntList();
+            for (int i = 0; i < keys.length; i++) {
+                int[] values = groups.get(keys[i]).sortedDistinct();
+                postings.addRange(values, 0, values.length);
+                offsets[i + 1] = postings.size;
+            }
+            return new Snapshot(keys, offsets, postings.toArray());
+        }
+    }
+
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addRange(int[] src, int from, int to) {
+            int n = to - from;
+            if (size + n > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, size + n));
+            }
+            System.arraycopy(src, from, values, size, n);
+            size += n;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+
+        int[] sortedDistinct() {
+            int[] sorted = toArray();
+            Arrays.sort(sorted);
+            int n = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (n == 0 || sorted[n - 1] != sorted[i]) {
+                    sorted[n++] = sorted[i];
+                }
+            }
+            return n == sorted.length ? sorted : Arrays.copyOf(sorted, n);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.search;
+
+import com.example.CryptoResult;
+import com.example.RangeJob;
+import com.example.crypto.CryptoProvider;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * 기존 행의 ssn_hmac(blind index) 채우기
+ *
+ * - 구간 안에서는 batchSize 행씩 읽어 provider 로 일괄 복호화하고, HMAC 을 계산해 배치 UPDATE 후 commit
+ * - UPDATE 는 "WHERE emp_no = ? AND ssn_no = <읽은 값>" 이므로 그 사이 바뀐 행은 건너뜀 (등록 경로가 직접 기록)
+ * - 기본은 ssn_hmac 이 비어 있는 행만 처리하므로 중지 후 다시 시작하면 남은 행부터 진행.
+ *   overwrite=true 이면 전체를 다시 계산 (SSN_HMAC_KEY 교체 후)
+ *
+ * 구간 분할 / 병렬 처리 / 중지는 RangeJob 참고.
+ */
+public class SsnBackfillJob extends RangeJob {
+
+    private static final String COLUMN_CHECK_SQL = "SELECT ssn_hmac FROM employee LIMIT 0";
+    private static final String KEY_SPACE_SQL = "SELECT MIN(emp_no), MAX(emp_no) FROM employee";
+    private static final String PENDING_SQL = "SELECT COUNT(*) FROM employee WHERE ssn_no IS NOT NULL AND ssn_no <> ''";
+    private static final String SELECT_SQL = "SELECT emp_no, ssn_no FROM employee WHERE emp_no > ? AND emp_no <= ? AND ssn_no IS NOT NULL AND ssn_no <> ''";
+    private static final String UPDATE_SQL = "UPDATE employee SET ssn_hmac = ? WHERE emp_no = ? AND ssn_no = ?";
+    private static final String MISSING_ONLY = " AND ssn_hmac IS NULL";
+
+    private static final Slot<SsnBackfillJob> SLOT = new Slot<>();
+
+    private final String provider;
+    private final CryptoProvider crypto;
+    private final boolean overwrite;
+
+    public SsnBackfillJob(String provider, boolean overwrite, int threads, int rangeSize, int batchSize) {
+        super("SSN index backfill", "ssn-index-backfill", threads, rangeSize, batchSize, 0);
+        if (!SsnBlindIndex.getInstance().isEnabled()) {
+            throw new IllegalStateException("SSN blind index is disabled (SSN_HMAC_KEY not set)");
+        }
+        this.provider = provider;
+        this.crypto = CryptoProvider.uncached(provider);
+        if (!crypto.readsStoredValues()) {
+            throw new IllegalArgumentException("Provider cannot decrypt stored ssn_no: " + provider);
+        }
+        this.overwrite = overwrite;
+    }
+
+    /**
+     * 작업을 백그라운드에서 시작합니다. 이미 실행 중인 작업이 있으면 IllegalStateException.
+     */
+    public static SsnBackfillJob start(SsnBackfillJob job) {
+        return SLOT.start(job);
+    }
+
+    public static SsnBackfillJob current() {
+        return SLOT.current();
+    }
+
+    /**
+     * 웹앱 종료 시 진행 중인 배치까지만 마치고 멈춥니다.
+     */
+    public static void shutdown() {
+        SLOT.shutdown();
+    }
+
+    /**
+     * 처리할 행 수를 세고 emp_no 전체를 덮는 구간 목록을 만듭니다.
+     */
+    @Override
+    protected List<Range> plan(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            try {
+                stmt.executeQuery(COLUMN_CHECK_SQL).close();
+            } catch (SQLException e) {
+                throw new SQLException(
+                        "employee.ssn_hmac column is missing, run scripts/sample_data/03_ssn_hmac.sql first", e);
+            }
+
+            long minEmpNo;
+            long maxEmpNo;
+            try (ResultSet rs = stmt.executeQuery(KEY_SPACE_SQL)) {
+                rs.next();
+                minEmpNo = rs.getLong(1);
+                maxEmpNo = rs.getLong(2);
+            }
+            try (ResultSet rs = stmt.executeQuery(PENDING_SQL + (overwrite ? "" : MISSING_ONLY))) {
+                rs.next();
+                setRowsTotal(rs.getLong(1));
+            }
+            return ranges(alignedStart(minEmpNo), maxEmpNo);
+        }
+    }
+
+    @Override
+    protected String selectSql() {
+        return SELECT_SQL + (overwrite ? "" : MISSING_ONLY) + " ORDER BY emp_no LIMIT ?";
+    }
+
+    @Override
+    protected BatchWriter openWriter(Connection conn) throws SQLException {
+        PreparedStatement update = conn.prepareStatement(UPDATE_SQL);
+        SsnBlindIndex index = SsnBlindIndex.getInstance();
+        return new BatchWriter() {
+            @Override
+            public void write(Range range, List<Integer> empNos, List<String> cipherTexts, long last, boolean done)
+                    throws SQLException {
+                if (empNos.isEmpty()) {
+                    return;
+                }
+                List<CryptoResult> revealed = crypto.decAll(cipherTexts);
+                int batched = 0;
+                for (int i = 0; i < empNos.size(); i++) {
+                    CryptoResult result = revealed.get(i);
+                    byte[] hash = result.isOk() ? index.hash(result.getValue()) : null;
+                    if (hash == null) {
+                        rowsFailed.increment();
+                        System.err.println("SSN index backfill failed for emp_no " + empNos.get(i) + ": "
+                                + (result.isOk() ? "empty plaintext" : result.getError()));
+                        continue;
+                    }
+                    update.setBytes(1, hash);
+                    update.setInt(2, empNos.get(i));
+                    update.setString(3, cipherTexts.get(i));
+                    update.addBatch();
+                    batched++;
+                }
+                int indexed = 0;
+                if (batched > 0) {
+                    for (int count : update.executeBatch()) {
+                        // 0 = 읽은 뒤 ssn_no 가 바뀐 행
+                        if (count != 0) {
+                            indexed++;
+                        }
+                    }
+                }
+                conn.commit();
+                rowsUpdated.add(indexed);
+                rowsSkipped.add(batched - indexed);
+            }
+
+            @Override
+            public void close() throws SQLException {
+                update.close();
+            }
+        };
+    }
+
+    // --- Status ---
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public boolean isOverwrite() {
+        return overwrite;
+    }
+}
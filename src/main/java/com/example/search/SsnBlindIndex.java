@@ -0,0 +1,112 @@
+package com.example.search;
+
+import com.example.Env;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * SSN 동등 검색용 blind index (employee.ssn_hmac)
+ *
+ * - 값: HMAC-SHA256(SSN_HMAC_KEY, 정규화한 평문 SSN), 32바이트. ssn_no 암호문과 별도로 저장하고 MySQL 인덱스로 조회
+ * - 정규화: 공백과 '-' 를 제거 (900101-1234567 과 9001011234567 은 같은 값)
+ * - 키: SSN_HMAC_KEY (Base64, 32바이트 이상). 없으면 비활성화되어 등록 시 ssn_hmac 을 기록하지 않고 조회 API는 503
+ *
+ * 같은 SSN은 항상 같은 값이 되므로 DB 만으로 SSN 중복 여부는 알 수 있습니다 (키 없이는 평문을 알 수 없음).
+ * 키를 바꾸면 ssn_hmac 을 비우고 SsnBackfillJob 으로 다시 채워야 합니다.
+ */
+public final class SsnBlindIndex {
+
+    public static final int HASH_BYTES = 32;
+
+    private static final int MIN_KEY_BYTES = 32;
+
+    private static volatile SsnBlindIndex instance;
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+
+    private SsnBlindIndex(byte[] keyBytes) {
+        this.key = keyBytes == null ? null : new SecretKeySpec(keyBytes, "HmacSHA256");
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    public static SsnBlindIndex getInstance() {
+        if (instance == null) {
+            synchronized (SsnBlindIndex.class) {
+                if (instance == null) {
+                    instance = new SsnBlindIndex(loadKey());
+                }
+            }
+        }
+        return instance;
+    }
+
+    private static byte[] loadKey() {
+        String configured = Env.get("SSN_HMAC_KEY", null);
+        if (configured == null) {
+            System.out.println("SSN_HMAC_KEY not set, SSN blind index is disabled");
+            return null;
+        }
+        byte[] keyBytes = Base64.getDecoder().decode(configured.trim());
+        if (keyBytes.length < MIN_KEY_BYTES) {
+            throw new IllegalArgumentException("SSN_HMAC_KEY must be at least " + MIN_KEY_BYTES + " bytes (Base64)");
+        }
+        return keyBytes;
+    }
+
+    public boolean isEnabled() {
+        return key != null;
+    }
+
+    /**
+     * 평문 SSN의 blind index 값 (비활성화 상태면 IllegalStateException, SSN이 비어 있으면 null)
+     */
+    public byte[] hash(String ssn) {
+        if (!isEnabled()) {
+            throw new IllegalStateException("SSN blind index is disabled (SSN_HMAC_KEY not set)");
+        }
+        String normalized = normalize(ssn);
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        return macs.get().doFinal(normalized.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 두 SSN이 정규화 후 같은지 (색인으로 찾은 행을 복호화한 값과 입력값 비교용)
+     */
+    public static boolean sameSsn(String a, String b) {
+        if (a == null || b == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(normalize(a).getBytes(StandardCharsets.UTF_8),
+                normalize(b).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String normalize(String ssn) {
+        if (ssn == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(ssn.length());
+        for (int i = 0; i < ssn.length(); i++) {
+            char c = ssn.charAt(i);
+            if (c != '-' && !Character.isWhitespace(c)) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.servlet;
+
+import com.example.CadpClient;
+import com.example.CrdpClient;
+import com.example.CryptoWarmup;
+import com.example.DbPool;
+import com.example.EmployeeCount;
+import com.example.rotation.KeyRotationJob;
+import com.example.search.EmployeeNameIndex;
+import com.example.search.SsnBackfillJob;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+
+/**
+ * 웹앱 기동/종료 시 공유 리소스(커넥션 풀, 요청 executor, 이름 색인, 전체 건수, 암복호화 클라이언트)를 생성하고 정리합니다.
+ */
+@WebListener
+public class AppContextListener implements ServletContextListener {
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        DbPool.getInstance();
+        RequestExecutor.getInstance();
+        EmployeeNameIndex.getInstance().buildAsync();
+        EmployeeCount.start();
+        CryptoWarmup.start();
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        CryptoWarmup.shutdown();
+        RequestExecutor.shutdown();
+        KeyRotationJob.shutdown();
+        SsnBackfillJob.shutdown();
+        CadpClient.shutdownParallelPool();
+        CrdpClient.shutdown();
+        EmployeeNameIndex.getInstance().shutdown();
+        EmployeeCount.shutdown();
+        DbPool.shutdown();
+    }
+}
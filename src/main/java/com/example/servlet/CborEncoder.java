@@ -0,0 +1,97 @@
+package com.example.servlet;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * 응답용 최소 CBOR 인코더 (RFC 8949)
+ * 목록 응답에 필요한 타입(정수, 문자열, null, 배열/맵 헤더, 날짜)만 지원합니다.
+ */
+final class CborEncoder {
+
+    private static final int MAJOR_UNSIGNED = 0;
+    private static final int MAJOR_NEGATIVE = 1;
+    private static final int MAJOR_TEXT = 3;
+    private static final int MAJOR_ARRAY = 4;
+    private static final int MAJOR_MAP = 5;
+    private static final int MAJOR_TAG = 6;
+
+    /** RFC 8943: 1970-01-01 기준 일 수 */
+    private static final int TAG_EPOCH_DAYS = 100;
+
+    private final OutputStream out;
+
+    CborEncoder(OutputStream out) {
+        this.out = out;
+    }
+
+    void integer(long value) throws IOException {
+        if (value >= 0) {
+            head(MAJOR_UNSIGNED, value);
+        } else {
+            head(MAJOR_NEGATIVE, -1 - value);
+        }
+    }
+
+    void text(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        head(MAJOR_TEXT, bytes.length);
+        out.write(bytes);
+    }
+
+    void nullValue() throws IOException {
+        out.write(0xF6);
+    }
+
+    void epochDays(LocalDate date) throws IOException {
+        head(MAJOR_TAG, TAG_EPOCH_DAYS);
+        integer(date.toEpochDay());
+    }
+
+    void arrayHeader(int size) throws IOException {
+        head(MAJOR_ARRAY, size);
+    }
+
+    void mapHeader(int size) throws IOException {
+        head(MAJOR_MAP, size);
+    }
+
+    /** 길이를 미리 알 수 없는 배열 시작 (end()로 닫음) */
+    void indefiniteArray() throws IOException {
+        out.write((MAJOR_ARRAY << 5) | 31);
+    }
+
+    void end() throws IOException {
+        out.write(0xFF);
+    }
+
+    void flush() throws IOException {
+        out.flush();
+    }
+
+    private void head(int major, long value) throws IOException {
+        int type = major << 5;
+        if (value < 24) {
+            out.write(type | (int) value);
+        } else if (value <= 0xFF) {
+            out.write(type | 24);
+            out.write((int) value);
+        } else if (value <= 0xFFFF) {
+            out.write(type | 25);
+            out.write((int) (value >>> 8));
+            out.write((int) value);
+        } else if (value <= 0xFFFFFFFFL) {
+            out.write(type | 26);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                out.write((int) (value >>> shift));
+            }
+        } else {
+            out.write(type | 27);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                out.write((int) (value >>> shift));
+            }
+        }
+    }
+}
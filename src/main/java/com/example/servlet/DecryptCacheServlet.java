@@ -0,0 +1,49 @@
+package com.example.servlet;
+
+import com.example.DecryptCache;
+import com.google.gson.JsonObject;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * 복호화 캐시 통계 조회 (GET) 및 캐시 비우기 (DELETE)
+ */
+@WebServlet("/api/cache/decrypt")
+public class DecryptCacheServlet extends HttpServlet {
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        writeStats(resp, DecryptCache.getInstance());
+    }
+
+    @Override
+    protected void doDelete(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        DecryptCache cache = DecryptCache.getInstance();
+        cache.clear();
+        writeStats(resp, cache);
+    }
+
+    private void writeStats(HttpServletResponse resp, DecryptCache cache) throws IOException {
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding("UTF-8");
+
+        JsonObject stats = new JsonObject();
+        stats.addProperty("enabled", cache.isEnabled());
+        stats.addProperty("size", cache.size());
+        stats.addProperty("hits", cache.getHits());
+        stats.addProperty("misses", cache.getMisses());
+        stats.addProperty("evictions", cache.getEvictions());
+        stats.addProperty("expirations", cache.getExpirations());
+        stats.addProperty("coalesced", cache.getCoalesced());
+
+        PrintWriter out = resp.getWriter();
+        out.print(stats.toString());
+        out.flush();
+    }
+}
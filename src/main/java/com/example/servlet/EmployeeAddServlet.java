@@ -1,51 +1,44 @@
 package com.example.servlet;
 
 import com.example.CadpClient;
+import com.example.DbPool;
+import com.example.EmployeeCount;
+import com.example.EmployeeTableVersion;
 import com.example.model.Employee;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.TypeAdapter;
-import com.google.gson.stream.JsonReader;
-import com.google.gson.stream.JsonWriter;
+import com.example.search.EmployeeNameIndex;
+import com.example.search.SsnBlindIndex;
 
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.time.LocalDate;
 
-@WebServlet("/api/employees/add")
+@WebServlet(value = "/api/employees/add", asyncSupported = true)
 public class EmployeeAddServlet extends HttpServlet {
 
+    private static final EndpointMetrics METRICS = new EndpointMetrics("add");
+
     @Override
     protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        RequestExecutor.getInstance().dispatch(req, resp, METRICS, this::process);
+    }
+
+    private void process(HttpServletRequest req, HttpServletResponse resp) throws IOException {
         req.setCharacterEncoding("UTF-8");
         resp.setContentType("application/json");
         resp.setCharacterEncoding("UTF-8");
 
-        StringBuilder buffer = new StringBuilder();
-        BufferedReader reader = req.getReader();
-        String line;
-        while ((line = reader.readLine()) != null) {
-            buffer.append(line);
-        }
-        String payload = buffer.toString();
-
-        Gson gson = new GsonBuilder()
-                .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
-                .create();
-        
         Employee employee;
+        long parseStart = System.nanoTime();
         try {
-            employee = gson.fromJson(payload, Employee.class);
+            employee = EmployeeJson.GSON.fromJson(req.getReader(), Employee.class);
+            METRICS.serialize.recordSince(parseStart);
         } catch (Exception e) {
             resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
             writeError(resp, "Invalid JSON format");
@@ -62,7 +55,9 @@ public class EmployeeAddServlet extends HttpServlet {
         String originalSsn = employee.getSsn();
         String encryptedSsn = null;
         if (originalSsn != null && !originalSsn.isEmpty()) {
+            long encryptStart = System.nanoTime();
             encryptedSsn = CadpClient.getInstance().enc(originalSsn);
+            METRICS.decryptPage.recordSince(encryptStart);
             if (encryptedSsn == null) {
                 resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
                 writeError(resp, "SSN Encryption failed");
@@ -70,18 +65,6 @@ public class EmployeeAddServlet extends HttpServlet {
             }
         }
 
-        String url = "jdbc:mysql://mysql:3306/mysql_employees?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC&useUnicode=true&characterEncoding=UTF-8";
-        String dbUser = "testuser";
-        String dbPassword = "testpassword";
-
-        try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-        } catch (ClassNotFoundException e) {
-            resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-            writeError(resp, "JDBC Driver not found");
-            return;
-        }
-
         String sql = "INSERT INTO employee (emp_no, birth_date, first_name, last_name, gender, hire_date, ssn_no) VALUES (?, ?, ?, ?, ?, ?, ?)";
         // Note: Column names in DB are assumed based on EmployeeOriginalServlet SELECT:
         // emp_no, date_of_birth, first_name, last_name, gender, date_of_hiring, ssn_no
@@ -91,8 +74,15 @@ public class EmployeeAddServlet extends HttpServlet {
         
         sql = "INSERT INTO employee (emp_no, date_of_birth, first_name, last_name, gender, date_of_hiring, ssn_no) VALUES (?, ?, ?, ?, ?, ?, ?)";
 
-        try (Connection conn = DriverManager.getConnection(url, dbUser, dbPassword);
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        // SSN 동등 검색용 blind index (SSN_HMAC_KEY 가 설정된 경우만)
+        SsnBlindIndex ssnIndex = SsnBlindIndex.getInstance();
+        if (ssnIndex.isEnabled()) {
+            sql = "INSERT INTO employee (emp_no, date_of_birth, first_name, last_name, gender, date_of_hiring, ssn_no, ssn_hmac) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        }
+
+        try (Connection conn = DbPool.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             EmployeeCount.Insert insert = EmployeeCount.beginInsert()) {
 
             stmt.setInt(1, employee.getEmpNo());
             stmt.setObject(2, employee.getDateOfBirth()); // JDBC 4.2 supports LocalDate
@@ -101,8 +91,19 @@ public class EmployeeAddServlet extends HttpServlet {
             stmt.setString(5, employee.getGender());
             stmt.setObject(6, employee.getDateOfHiring());
             stmt.setString(7, encryptedSsn);
+            if (ssnIndex.isEnabled()) {
+                stmt.setBytes(8, encryptedSsn == null ? null : ssnIndex.hash(originalSsn));
+            }
 
+            long queryStart = System.nanoTime();
             int rows = stmt.executeUpdate();
+            METRICS.query.recordSince(queryStart);
+            if (rows > 0) {
+                EmployeeTableVersion.increment();
+                insert.committed(rows);
+                EmployeeNameIndex.getInstance().add(employee.getEmpNo(), employee.getFirstName(),
+                        employee.getLastName());
+            }
             
             PrintWriter out = resp.getWriter();
             if (rows > 0) {
@@ -113,6 +114,7 @@ public class EmployeeAddServlet extends HttpServlet {
             out.flush();
 
         } catch (SQLException e) {
+            METRICS.dbErrors.increment();
             e.printStackTrace();
             resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
             writeError(resp, "Database error: " + e.getMessage());
@@ -124,24 +126,4 @@ public class EmployeeAddServlet extends HttpServlet {
         out.print("{\"error\": \"" + message + "\"}");
         out.flush();
     }
-
-    private static class LocalDateAdapter extends TypeAdapter<LocalDate> {
-        @Override
-        public void write(JsonWriter jsonWriter, LocalDate localDate) throws IOException {
-            if (localDate == null)
-                jsonWriter.nullValue();
-            else
-                jsonWriter.value(localDate.toString());
-        }
-
-        @Override
-        public LocalDate read(JsonReader jsonReader) throws IOException {
-            if (jsonReader.peek() == com.google.gson.stream.JsonToken.NULL) {
-                jsonReader.nextNull();
-                return null;
-            } else {
-                return LocalDate.parse(jsonReader.nextString());
-            }
-        }
-    }
 }
@@ -0,0 +1,296 @@
+package com.example.servlet;
+
+import com.example.CadpClient;
+import com.example.CryptoResult;
+import com.example.DbPool;
+import com.example.EmployeeCount;
+import com.example.EmployeeTableVersion;
+import com.example.model.Employee;
+import com.example.search.EmployeeNameIndex;
+import com.example.search.SsnBlindIndex;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.Strictness;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 직원 대량 등록
+ *
+ * 본문은 JSON 배열([{...}, {...}]) 또는 NDJSON(한 줄에 객체 하나) 모두 허용하며, 전체를 메모리에 올리지 않고
+ * DB 배치 크기(DB_BATCH_SIZE) 단위로 읽어서 SSN 병렬 암호화 -> addBatch/executeBatch -> commit 을 반복합니다.
+ * 응답은 처리 건수와 실패한 행(index, empNo, error) 목록입니다.
+ * 행 단위로 먼저 JSON 값을 읽은 뒤 Employee 로 변환하므로, 날짜 형식 오류 등 변환 실패는 해당 행만 실패로 기록합니다.
+ */
+@WebServlet("/api/employees/bulk")
+public class EmployeeBulkAddServlet extends HttpServlet {
+
+    private static final String INSERT_SQL = "INSERT INTO employee (emp_no, date_of_birth, first_name, last_name, gender, date_of_hiring, ssn_no) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    // SSN_HMAC_KEY 가 설정되어 있으면 blind index 도 함께 기록
+    private static final String INSERT_WITH_HMAC_SQL = "INSERT INTO employee (emp_no, date_of_birth, first_name, last_name, gender, date_of_hiring, ssn_no, ssn_hmac) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final EndpointMetrics METRICS = new EndpointMetrics("bulk-add");
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            process(req, resp);
+        } finally {
+            METRICS.request.recordSince(start);
+        }
+    }
+
+    private void process(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        req.setCharacterEncoding("UTF-8");
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding("UTF-8");
+
+        Summary summary = new Summary();
+        int batchSize = DbPool.getInstance().getBatchSize();
+
+        try (Connection conn = DbPool.getInstance().getConnection();
+                PreparedStatement stmt = conn.prepareStatement(
+                        SsnBlindIndex.getInstance().isEnabled() ? INSERT_WITH_HMAC_SQL : INSERT_SQL);
+                JsonReader reader = new JsonReader(req.getReader())) {
+
+            conn.setAutoCommit(false);
+            reader.setStrictness(Strictness.LENIENT); // NDJSON: 최상위 값 여러 개 허용
+
+            List<Row> chunk = new ArrayList<>(batchSize);
+            try {
+                boolean array = reader.peek() == JsonToken.BEGIN_ARRAY;
+                if (array) {
+                    reader.beginArray();
+                }
+                while (array ? reader.hasNext() : reader.peek() != JsonToken.END_DOCUMENT) {
+                    long parseStart = System.nanoTime();
+                    JsonElement element = JsonParser.parseReader(reader);
+                    Employee employee;
+                    try {
+                        employee = EmployeeJson.GSON.fromJson(element, Employee.class);
+                    } catch (RuntimeException e) {
+                        // DateTimeParseException 등: 값 하나는 이미 끝까지 읽었으므로 다음 행부터 계속
+                        summary.fail(summary.received++, empNoOf(element), "Invalid data: " + e.getMessage());
+                        continue;
+                    } finally {
+                        METRICS.serialize.recordSince(parseStart);
+                    }
+                    if (employee == null) {
+                        summary.fail(summary.received++, null, "Empty data");
+                        continue;
+                    }
+                    chunk.add(new Row(summary.received++, employee));
+                    if (chunk.size() == batchSize) {
+                        insertChunk(conn, stmt, chunk, summary);
+                        chunk.clear();
+                    }
+                }
+            } catch (JsonParseException | IllegalStateException | IOException e) {
+                // 이미 읽은 행까지는 저장하고, 응답에 파싱 오류 위치를 남김
+                summary.parseError = "Invalid JSON format at row " + summary.received;
+            }
+            if (!chunk.isEmpty()) {
+                insertChunk(conn, stmt, chunk, summary);
+            }
+
+        } catch (SQLException e) {
+            METRICS.dbErrors.increment();
+            e.printStackTrace();
+            resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            writeError(resp, "Database error: " + e.getMessage());
+            return;
+        }
+
+        if (summary.parseError != null) {
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        }
+        PrintWriter out = resp.getWriter();
+        out.print(summary.toJson());
+        out.flush();
+    }
+
+    /**
+     * 한 묶음: SSN 병렬 암호화 -> executeBatch -> commit.
+     * 배치 중 한 행이라도 실패하면(중복 키 등) 해당 묶음을 rollback 하고 행 단위로 다시 넣어서 실패한 행만 보고합니다.
+     */
+    private void insertChunk(Connection conn, PreparedStatement stmt, List<Row> chunk, Summary summary)
+            throws SQLException {
+        String[] encrypted = encryptSsns(chunk);
+
+        List<Integer> pending = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Employee employee = chunk.get(i).employee;
+            if (hasSsn(employee) && encrypted[i] == null) {
+                summary.fail(chunk.get(i).index, employee.getEmpNo(), "SSN Encryption failed");
+                continue;
+            }
+            bind(stmt, employee, encrypted[i]);
+            stmt.addBatch();
+            pending.add(i);
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        long queryStart = System.nanoTime();
+        try (EmployeeCount.Insert insert = EmployeeCount.beginInsert()) {
+            try {
+                stmt.executeBatch();
+                conn.commit();
+                summary.inserted += pending.size();
+                insert.committed(pending.size());
+                for (int i : pending) {
+                    indexName(chunk.get(i).employee);
+                }
+            } catch (BatchUpdateException e) {
+                METRICS.dbErrors.increment();
+                stmt.clearBatch();
+                conn.rollback();
+                insertOneByOne(conn, stmt, chunk, encrypted, pending, summary, insert);
+            }
+        } finally {
+            METRICS.query.recordSince(queryStart);
+            EmployeeTableVersion.increment();
+        }
+    }
+
+    private void insertOneByOne(Connection conn, PreparedStatement stmt, List<Row> chunk, String[] encrypted,
+            List<Integer> pending, Summary summary, EmployeeCount.Insert insert) throws SQLException {
+        for (int i : pending) {
+            Employee employee = chunk.get(i).employee;
+            try {
+                bind(stmt, employee, encrypted[i]);
+                stmt.executeUpdate();
+                conn.commit();
+                summary.inserted++;
+                insert.committed(1);
+                indexName(employee);
+            } catch (SQLException e) {
+                conn.rollback();
+                summary.fail(chunk.get(i).index, employee.getEmpNo(), e.getMessage());
+            }
+        }
+    }
+
+    private String[] encryptSsns(List<Row> chunk) {
+        long start = System.nanoTime();
+        List<String> ssns = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            ssns.add(hasSsn(row.employee) ? row.employee.getSsn() : null);
+        }
+        String[] encrypted = new String[chunk.size()];
+        List<CryptoResult> results;
+        try {
+            // CadpClient 전용 ForkJoin 풀에서 코어 수만큼 병렬 암호화 (입력 순서 유지)
+            results = CadpClient.getInstance().encAll(ssns);
+        } catch (RuntimeException e) {
+            // CADP 초기화 실패 등: SSN이 있는 행만 암호화 실패로 보고하고 나머지는 그대로 저장
+            e.printStackTrace();
+            METRICS.decryptPage.recordSince(start);
+            return encrypted;
+        }
+        for (int i = 0; i < encrypted.length; i++) {
+            CryptoResult result = results.get(i);
+            encrypted[i] = result.isOk() ? result.getValue() : null;
+        }
+        METRICS.decryptPage.recordSince(start);
+        return encrypted;
+    }
+
+    /** 변환에 실패한 행의 empNo (있으면) */
+    private static Integer empNoOf(JsonElement element) {
+        if (element.isJsonObject()) {
+            JsonElement empNo = element.getAsJsonObject().get("empNo");
+            if (empNo != null && empNo.isJsonPrimitive() && empNo.getAsJsonPrimitive().isNumber()) {
+                return empNo.getAsInt();
+            }
+        }
+        return null;
+    }
+
+    private static void indexName(Employee employee) {
+        EmployeeNameIndex.getInstance().add(employee.getEmpNo(), employee.getFirstName(), employee.getLastName());
+    }
+
+    private static boolean hasSsn(Employee employee) {
+        return employee.getSsn() != null && !employee.getSsn().isEmpty();
+    }
+
+    private static void bind(PreparedStatement stmt, Employee employee, String encryptedSsn) throws SQLException {
+        stmt.setInt(1, employee.getEmpNo());
+        stmt.setObject(2, employee.getDateOfBirth());
+        stmt.setString(3, employee.getFirstName());
+        stmt.setString(4, employee.getLastName());
+        stmt.setString(5, employee.getGender());
+        stmt.setObject(6, employee.getDateOfHiring());
+        stmt.setString(7, encryptedSsn);
+        SsnBlindIndex index = SsnBlindIndex.getInstance();
+        if (index.isEnabled()) {
+            stmt.setBytes(8, hasSsn(employee) ? index.hash(employee.getSsn()) : null);
+        }
+    }
+
+    private void writeError(HttpServletResponse resp, String message) throws IOException {
+        PrintWriter out = resp.getWriter();
+        out.print("{\"error\": \"" + message + "\"}");
+        out.flush();
+    }
+
+    /** 요청 본문 내 순번(0부터)과 함께 보관 */
+    private static final class Row {
+        final int index;
+        final Employee employee;
+
+        Row(int index, Employee employee) {
+            this.index = index;
+            this.employee = employee;
+        }
+    }
+
+    private static final class Summary {
+        int received;
+        int inserted;
+        String parseError;
+        final JsonArray errors = new JsonArray();
+
+        void fail(int index, Integer empNo, String message) {
+            JsonObject error = new JsonObject();
+            error.addProperty("index", index);
+            if (empNo != null) {
+                error.addProperty("empNo", empNo);
+            }
+            error.addProperty("error", message);
+            errors.add(error);
+        }
+
+        String toJson() {
+            JsonObject json = new JsonObject();
+            json.addProperty("received", received);
+            json.addProperty("inserted", inserted);
+            json.addProperty("failed", errors.size());
+            if (parseError != null) {
+                json.addProperty("error", parseError);
+            }
+            json.add("errors", errors);
+            return json.toString();
+        }
+    }
+}
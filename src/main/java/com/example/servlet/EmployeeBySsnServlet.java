@@ -0,0 +1,126 @@
+package com.example.servlet;
+
+import com.example.CryptoResult;
+import com.example.DbPool;
+import com.example.crypto.CryptoProvider;
+import com.example.model.Employee;
+import com.example.search.SsnBlindIndex;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * SSN 으로 직원 조회 (ssn_hmac blind index 사용)
+ *
+ * POST ssn=..., fields=..., provider=cadp|crdp (기본 cadp)
+ * 입력값의 HMAC 으로 인덱스를 한 번 조회하고, 찾은 행의 ssn_no 만 복호화해서 입력값과 같은 행을 반환합니다.
+ * (목록 API와 같은 응답 형식, 없으면 빈 배열). SSN이 access log 에 남지 않도록 GET은 지원하지 않습니다.
+ * 등록 시점이나 SsnBackfillJob 으로 ssn_hmac 이 채워진 행만 찾을 수 있습니다.
+ */
+@WebServlet(value = "/api/employee/by-ssn", asyncSupported = true)
+public class EmployeeBySsnServlet extends HttpServlet {
+
+    private static final EndpointMetrics METRICS = new EndpointMetrics("by-ssn");
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        RequestExecutor.getInstance().dispatch(req, resp, METRICS, this::process);
+    }
+
+    private void process(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        req.setCharacterEncoding("UTF-8");
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding("UTF-8");
+
+        String ssn = req.getParameter("ssn");
+        Set<EmployeeField> fields;
+        CryptoProvider crypto;
+        byte[] hash;
+        try {
+            fields = EmployeeField.parse(req.getParameter("fields"));
+            String provider = req.getParameter("provider") == null ? "cadp" : req.getParameter("provider");
+            if (!CryptoProvider.NAMES.contains(provider)) {
+                throw new IllegalArgumentException("Unsupported provider: " + provider);
+            }
+            crypto = CryptoProvider.forName(provider);
+            if (!crypto.readsStoredValues()) {
+                throw new IllegalArgumentException("Provider cannot decrypt stored ssn_no: " + provider);
+            }
+            hash = SsnBlindIndex.getInstance().hash(ssn);
+            if (hash == null) {
+                throw new IllegalArgumentException("ssn is required");
+            }
+        } catch (IllegalArgumentException e) {
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            writeError(resp, e.getMessage());
+            return;
+        } catch (IllegalStateException e) {
+            // SSN_HMAC_KEY 미설정
+            resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            writeError(resp, e.getMessage());
+            return;
+        }
+
+        List<Employee> rows = new ArrayList<>();
+        List<String> cipherTexts = new ArrayList<>();
+        try (Connection conn = DbPool.getInstance().getConnection();
+                PreparedStatement stmt = conn.prepareStatement(EmployeeQuery.bySsnSql(fields))) {
+            stmt.setBytes(1, hash);
+            long queryStart = System.nanoTime();
+            try (ResultSet rs = stmt.executeQuery()) {
+                METRICS.query.recordSince(queryStart);
+                while (rs.next()) {
+                    rows.add(EmployeeQuery.readEmployee(rs, fields, null));
+                    cipherTexts.add(rs.getString(EmployeeField.SSN.column));
+                }
+            }
+        } catch (SQLException e) {
+            METRICS.dbErrors.increment();
+            e.printStackTrace();
+            resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            writeError(resp, "Database error: " + e.getMessage());
+            return;
+        }
+
+        // 인덱스로 찾은 행만 복호화 (보통 1건)
+        long decryptStart = System.nanoTime();
+        List<CryptoResult> revealed = crypto.decAll(cipherTexts);
+        METRICS.decryptPage.recordSince(decryptStart);
+
+        EmployeeWriter out = EmployeeWriter.open(req, resp, fields, null);
+        for (int i = 0; i < rows.size(); i++) {
+            Employee row = rows.get(i);
+            CryptoResult result = revealed.get(i);
+            if (!result.isOk()) {
+                System.err.println("SSN reveal failed for emp_no " + row.getEmpNo() + ": " + result.getError());
+                continue;
+            }
+            // HMAC 충돌이나 ssn_hmac 이 갱신되지 않은 행은 제외
+            if (!SsnBlindIndex.sameSsn(result.getValue(), ssn)) {
+                continue;
+            }
+            String value = fields.contains(EmployeeField.SSN) ? result.getValue() : null;
+            out.write(new Employee(row.getEmpNo(), row.getDateOfBirth(), row.getFirstName(), row.getLastName(),
+                    row.getGender(), row.getDateOfHiring(), value));
+        }
+        out.finish();
+    }
+
+    private void writeError(HttpServletResponse resp, String message) throws IOException {
+        PrintWriter out = resp.getWriter();
+        out.print("{\"error\": \"" + message + "\"}");
+        out.flush();
+    }
+}
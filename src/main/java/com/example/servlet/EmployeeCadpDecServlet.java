@@ -1,12 +1,9 @@
 package com.example.servlet;
 
 import com.example.CadpClient;
+import com.example.CryptoResult;
+import com.example.DbPool;
 import com.example.model.Employee;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.TypeAdapter;
-import com.google.gson.stream.JsonReader;
-import com.google.gson.stream.JsonWriter;
 
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
@@ -16,131 +13,139 @@ import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.sql.*;
-import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
-@WebServlet("/api/employee/cadp-dec")
+@WebServlet(value = "/api/employee/cadp-dec", asyncSupported = true)
 public class EmployeeCadpDecServlet extends HttpServlet {
 
+    private static final EndpointMetrics METRICS = new EndpointMetrics("cadp-dec");
+    // 한 번에 decAll로 넘기는 행 수
+    private static final int CHUNK_SIZE = 1024;
+
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        RequestExecutor.getInstance().dispatch(req, resp, METRICS, this::process);
+    }
+
+    private void process(HttpServletRequest req, HttpServletResponse resp) throws IOException {
         req.setCharacterEncoding("UTF-8");
         resp.setContentType("application/json");
         resp.setCharacterEncoding("UTF-8");
 
-        List<Employee> employeeList = new ArrayList<>();
-        String url = "jdbc:mysql://mysql:3306/mysql_employees?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC&useUnicode=true&characterEncoding=UTF-8";
-        String dbUser = "testuser";
-        String dbPassword = "testpassword";
-
+        EmployeeQuery query;
         try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-        } catch (ClassNotFoundException e) {
-            resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-            writeError(resp, "JDBC Driver not found");
+            query = EmployeeQuery.from(req);
+        } catch (IllegalArgumentException e) {
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            writeError(resp, e.getMessage());
+            return;
+        } catch (IllegalStateException e) {
+            // 이름 색인 생성 중
+            resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            writeError(resp, e.getMessage());
             return;
         }
 
-        int page = 0;
-        int size = 100;
-        try {
-            String pageParam = req.getParameter("page");
-            if (pageParam != null)
-                page = Integer.parseInt(pageParam);
-            String sizeParam = req.getParameter("size");
-            if (sizeParam != null)
-                size = Integer.parseInt(sizeParam);
-        } catch (NumberFormatException e) {
-        }
-
-        int offset = page * size;
-        int empNoParam = -1;
-        String empNoStr = req.getParameter("empNo");
-        if (empNoStr != null && !empNoStr.isEmpty()) {
-            try {
-                empNoParam = Integer.parseInt(empNoStr);
-            } catch (NumberFormatException e) {}
-        }
+        EmployeeWriter out = null;
+        try (Connection conn = DbPool.getInstance().getConnection();
+                PreparedStatement stmt = query.prepare(conn)) {
 
-        String sql;
-        if (empNoParam != -1) {
-            sql = "SELECT emp_no, date_of_birth, first_name, last_name, gender, date_of_hiring, ssn_no FROM employee WHERE emp_no = ?";
-        } else {
-            sql = "SELECT emp_no, date_of_birth, first_name, last_name, gender, date_of_hiring, ssn_no FROM employee LIMIT ? OFFSET ?";
-        }
+            query.bind(stmt);
 
-        try (Connection conn = DriverManager.getConnection(url, dbUser, dbPassword);
-                PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            if (empNoParam != -1) {
-                stmt.setInt(1, empNoParam);
-            } else {
-                stmt.setInt(1, size);
-                stmt.setInt(2, offset);
+            CadpClient cadp = null;
+            if (query.includesSsn()) {
+                try {
+                    cadp = CadpClient.getInstance();
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
             }
+            // 청크 단위로 모아서 코어 수만큼 병렬 복호화 후 즉시 기록 (메모리는 청크 크기만큼만 사용)
+            int chunkSize = Math.max(1, Math.min(query.getSize(), CHUNK_SIZE));
+            List<Employee> chunk = new ArrayList<>(chunkSize);
 
+            long queryStart = System.nanoTime();
             try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    int empNo = rs.getInt("emp_no");
-                    LocalDate birthDate = rs.getDate("date_of_birth").toLocalDate();
-                    String firstName = rs.getString("first_name");
-                    String lastName = rs.getString("last_name");
-                    String gender = rs.getString("gender");
-                    LocalDate hireDate = rs.getDate("date_of_hiring").toLocalDate();
-
-                    // Decrypt SSN using CADP
-                    String ssnRaw = rs.getString("ssn_no");
-                    String ssn;
-                    try {
-                        ssn = CadpClient.getInstance().dec(ssnRaw);
-                    } catch (Exception e) {
-                        ssn = "Decryption Failed: " + ssnRaw;
-                        e.printStackTrace();
+                METRICS.query.recordSince(queryStart);
+                EmployeeQuery.Rows rows = query.rows(rs);
+                String nextCursor = rows.nextCursor();
+                if (nextCursor != null) {
+                    resp.setHeader(EmployeeQuery.NEXT_CURSOR_HEADER, nextCursor);
+                }
+                out = EmployeeWriter.open(req, resp, query.getFields(), query.meta(nextCursor));
+                Employee row;
+                while ((row = rows.next()) != null) {
+                    if (!query.includesSsn()) {
+                        // ssn을 요청하지 않으면 복호화 없이 바로 기록
+                        out.write(row);
+                        continue;
+                    }
+                    chunk.add(row);
+                    if (chunk.size() == chunkSize) {
+                        writeDecrypted(out, cadp, chunk);
+                        chunk.clear();
                     }
-
-                    employeeList.add(new Employee(empNo, birthDate, firstName, lastName, gender, hireDate, ssn));
                 }
             }
-
-            Gson gson = new GsonBuilder()
-                    .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
-                    .create();
-
-            PrintWriter out = resp.getWriter();
-            out.print(gson.toJson(employeeList));
-            out.flush();
+            writeDecrypted(out, cadp, chunk);
+            out.finish();
 
         } catch (SQLException e) {
+            METRICS.dbErrors.increment();
             e.printStackTrace();
-            resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-            writeError(resp, "Database error: " + e.getMessage());
+            if (out == null) {
+                resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                writeError(resp, "Database error: " + e.getMessage());
+            }
+            // 스트리밍 도중 실패하면 응답이 잘린 채로 종료됨 (JSON 불완전)
         }
     }
 
-    private void writeError(HttpServletResponse resp, String message) throws IOException {
-        PrintWriter out = resp.getWriter();
-        out.print("{\"error\": \"" + message + "\"}");
-        out.flush();
-    }
-
-    private static class LocalDateAdapter extends TypeAdapter<LocalDate> {
-        @Override
-        public void write(JsonWriter jsonWriter, LocalDate localDate) throws IOException {
-            if (localDate == null)
-                jsonWriter.nullValue();
-            else
-                jsonWriter.value(localDate.toString());
+    private void writeDecrypted(EmployeeWriter out, CadpClient cadp, List<Employee> rows) throws IOException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<String> ssnRawList = new ArrayList<>(rows.size());
+        for (Employee row : rows) {
+            ssnRawList.add(row.getSsn());
         }
 
-        @Override
-        public LocalDate read(JsonReader jsonReader) throws IOException {
-            if (jsonReader.peek() == com.google.gson.stream.JsonToken.NULL) {
-                jsonReader.nextNull();
-                return null;
+        // Decrypt SSN using CADP (청크가 작으면 호출 스레드, 크면 전용 ForkJoin 풀에서 병렬 처리)
+        List<CryptoResult> revealed;
+        long decryptStart = System.nanoTime();
+        try {
+            if (cadp == null) {
+                throw new IllegalStateException("CADP client not initialized");
+            }
+            revealed = cadp.decAll(ssnRawList);
+        } catch (Exception e) {
+            e.printStackTrace();
+            revealed = Collections.nCopies(rows.size(), CryptoResult.error(e.getMessage()));
+        }
+        METRICS.decryptPage.recordSince(decryptStart);
+
+        long serializeStart = System.nanoTime();
+        for (int i = 0; i < rows.size(); i++) {
+            Employee row = rows.get(i);
+            CryptoResult result = revealed.get(i);
+            String ssn;
+            if (result.isOk()) {
+                ssn = result.getValue();
             } else {
-                return LocalDate.parse(jsonReader.nextString());
+                ssn = "Decryption Failed: " + row.getSsn();
+                System.err.println("CADP reveal failed for emp_no " + row.getEmpNo() + ": " + result.getError());
             }
+            out.write(new Employee(row.getEmpNo(), row.getDateOfBirth(), row.getFirstName(),
+                    row.getLastName(), row.getGender(), row.getDateOfHiring(), ssn));
         }
+        METRICS.serialize.recordSince(serializeStart);
+    }
+
+    private void writeError(HttpServletResponse resp, String message) throws IOException {
+        PrintWriter out = resp.getWriter();
+        out.print("{\"error\": \"" + message + "\"}");
+        out.flush();
     }
 }
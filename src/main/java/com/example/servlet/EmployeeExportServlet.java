@@ -0,0 +1,363 @@
+package com.example.servlet;
+
+import com.example.CryptoResult;
+import com.example.DbPool;
+import com.example.crypto.CryptoProvider;
+import com.example.metrics.Counter;
+import com.example.metrics.Metrics;
+import com.example.model.Employee;
+import com.google.gson.Strictness;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonWriter;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * 전체 직원 내보내기 (CSV / NDJSON)
+ *
+ * - MySQL streaming result set(fetchSize = Integer.MIN_VALUE)으로 한 행씩 읽음 (전체를 메모리에 올리지 않음)
+ * - 행을 batch 단위로 묶어 복호화를 비동기로 돌리고, 최대 PIPELINE_DEPTH 개 batch가 동시에 진행되는 동안 다음 행을 읽음
+ * - batch 순서대로 기록 후 flush (Content-Length 없음 -> chunked 전송)
+ * - 클라이언트가 연결을 끊으면 기록 시 IOException이 발생하므로, 남은 batch를 취소하고 쿼리를 중단
+ * - 복호화 batch 자체가 예외로 실패해도(종료 중 풀 거부 등) 같은 방식으로 중단하고 실패 건수로 집계 (응답은 잘린 채 종료)
+ *
+ * 파라미터: format=csv|ndjson (기본 csv), provider=cadp|crdp|none (기본 cadp, none은 암호문 그대로),
+ *          fields=a,b,c (기본 전체, ssn이 없으면 복호화 생략)
+ */
+@WebServlet("/api/employees/export")
+public class EmployeeExportServlet extends HttpServlet {
+
+    private static final int PIPELINE_DEPTH = 4;
+    private static final int DEFAULT_BATCH_SIZE = 500;
+
+    private static final EndpointMetrics METRICS = new EndpointMetrics("export");
+    private static final Counter FAILED_EXPORTS = Metrics.counter("app_export_failures_total",
+            "Exports aborted because a decrypt batch failed");
+
+    private ExecutorService decryptPool;
+
+    @Override
+    public void init() throws ServletException {
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        decryptPool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "export-decrypt");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        decryptPool.shutdownNow();
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            process(req, resp);
+        } finally {
+            METRICS.request.recordSince(start);
+        }
+    }
+
+    private void process(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        req.setCharacterEncoding("UTF-8");
+        resp.setCharacterEncoding("UTF-8");
+
+        String format = req.getParameter("format") == null ? "csv" : req.getParameter("format");
+        String provider = req.getParameter("provider") == null ? "cadp" : req.getParameter("provider");
+        if (!"csv".equals(format) && !"ndjson".equals(format)) {
+            resp.setContentType("application/json");
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            writeError(resp, "Unsupported format: " + format);
+            return;
+        }
+
+        Set<EmployeeField> fields;
+        Function<List<String>, List<CryptoResult>> decryptor;
+        int batchSize = DEFAULT_BATCH_SIZE;
+        try {
+            fields = EmployeeField.parse(req.getParameter("fields"));
+            if (!"none".equals(provider) && !CryptoProvider.NAMES.contains(provider)) {
+                throw new IllegalArgumentException("Unsupported provider: " + provider);
+            }
+            if (!fields.contains(EmployeeField.SSN) || "none".equals(provider)) {
+                decryptor = null;
+            } else {
+                // 전체 테이블을 한 번씩만 읽으므로 DecryptCache 를 채우지 않음 (조회 API의 캐시 항목을 밀어내지 않도록)
+                CryptoProvider crypto = CryptoProvider.uncached(provider);
+                if (!crypto.readsStoredValues()) {
+                    throw new IllegalArgumentException("Provider cannot decrypt stored ssn_no: " + provider);
+                }
+                decryptor = crypto::decAll;
+                batchSize = crypto.getBatchSize();
+            }
+        } catch (IllegalArgumentException e) {
+            resp.setContentType("application/json");
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            writeError(resp, e.getMessage());
+            return;
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            resp.setContentType("application/json");
+            resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            writeError(resp, "Crypto client initialization failed: " + e.getMessage());
+            return;
+        }
+
+        AtomicBoolean aborted = new AtomicBoolean();
+        ArrayDeque<CompletableFuture<List<Employee>>> pipeline = new ArrayDeque<>();
+        RowWriter out = null;
+        long rows = 0;
+
+        try (Connection conn = DbPool.getInstance().getConnection();
+                PreparedStatement stmt = conn.prepareStatement(EmployeeQuery.exportSql(fields),
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            stmt.setFetchSize(Integer.MIN_VALUE); // Connector/J: 행 단위 streaming
+
+            long queryStart = System.nanoTime();
+            try (ResultSet rs = stmt.executeQuery()) {
+                METRICS.query.recordSince(queryStart);
+                out = openWriter(resp, format, fields);
+
+                List<Employee> batch = new ArrayList<>(batchSize);
+                try {
+                    while (rs.next()) {
+                        String ssn = fields.contains(EmployeeField.SSN) ? rs.getString("ssn_no") : null;
+                        batch.add(EmployeeQuery.readEmployee(rs, fields, ssn));
+                        if (batch.size() == batchSize) {
+                            pipeline.add(decryptAsync(decryptor, batch, aborted));
+                            batch = new ArrayList<>(batchSize);
+                            if (pipeline.size() >= PIPELINE_DEPTH) {
+                                rows += writeBatch(out, pipeline.poll().join());
+                            }
+                        }
+                    }
+                    if (!batch.isEmpty()) {
+                        pipeline.add(decryptAsync(decryptor, batch, aborted));
+                    }
+                    while (!pipeline.isEmpty()) {
+                        rows += writeBatch(out, pipeline.poll().join());
+                    }
+                } catch (IOException e) {
+                    // 클라이언트 연결 종료: 남은 복호화와 서버측 쿼리를 즉시 중단
+                    abort(aborted, pipeline, stmt);
+                    System.err.println("Export aborted by client after " + rows + " rows");
+                } catch (CompletionException | RejectedExecutionException e) {
+                    // 복호화 batch 실패 (예: 웹앱 종료 중 CADP 병렬 풀이 작업을 거부): 이미 헤더를 보냈으므로 응답은 잘린 채 종료
+                    abort(aborted, pipeline, stmt);
+                    FAILED_EXPORTS.increment();
+                    e.printStackTrace();
+                    System.err.println("Export failed after " + rows + " rows: "
+                            + (e.getCause() != null ? e.getCause() : e));
+                }
+            }
+
+        } catch (SQLException e) {
+            if (aborted.get()) {
+                return; // cancel() 이후 streaming result set 정리 중 발생하는 오류
+            }
+            METRICS.dbErrors.increment();
+            e.printStackTrace();
+            if (out == null) {
+                resp.setContentType("application/json");
+                resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                writeError(resp, "Database error: " + e.getMessage());
+            }
+            // 스트리밍 도중 실패하면 응답이 잘린 채로 종료됨
+        }
+    }
+
+    private static void abort(AtomicBoolean aborted, ArrayDeque<CompletableFuture<List<Employee>>> pipeline,
+            PreparedStatement stmt) throws SQLException {
+        aborted.set(true);
+        pipeline.forEach(f -> f.cancel(true));
+        stmt.cancel();
+    }
+
+    private RowWriter openWriter(HttpServletResponse resp, String format, Set<EmployeeField> fields)
+            throws IOException {
+        String extension = "csv".equals(format) ? "csv" : "ndjson";
+        resp.setContentType("csv".equals(format) ? "text/csv" : "application/x-ndjson");
+        resp.setHeader("Content-Disposition", "attachment; filename=\"employees." + extension + "\"");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(resp.getOutputStream(), StandardCharsets.UTF_8));
+        if ("csv".equals(format)) {
+            return new CsvRowWriter(writer, fields);
+        }
+        return new NdjsonRowWriter(writer, EmployeeJson.adapter(fields));
+    }
+
+    private CompletableFuture<List<Employee>> decryptAsync(Function<List<String>, List<CryptoResult>> decryptor,
+            List<Employee> batch, AtomicBoolean aborted) {
+        if (decryptor == null) {
+            return CompletableFuture.completedFuture(batch);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            if (aborted.get()) {
+                return batch;
+            }
+            long start = System.nanoTime();
+            List<String> cipherTexts = new ArrayList<>(batch.size());
+            for (Employee row : batch) {
+                cipherTexts.add(row.getSsn());
+            }
+            List<CryptoResult> revealed = decryptor.apply(cipherTexts);
+
+            List<Employee> decrypted = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                Employee row = batch.get(i);
+                String ssn = row.getSsn();
+                if (ssn != null) {
+                    CryptoResult result = revealed.get(i);
+                    ssn = result.isOk() ? result.getValue() : "Decryption Failed: " + ssn;
+                }
+                decrypted.add(new Employee(row.getEmpNo(), row.getDateOfBirth(), row.getFirstName(),
+                        row.getLastName(), row.getGender(), row.getDateOfHiring(), ssn));
+            }
+            METRICS.decryptPage.recordSince(start);
+            return decrypted;
+        }, decryptPool);
+    }
+
+    private long writeBatch(RowWriter out, List<Employee> batch) throws IOException {
+        long start = System.nanoTime();
+        for (Employee row : batch) {
+            out.write(row);
+        }
+        out.flush(); // batch마다 전송 (끊긴 연결도 여기서 감지)
+        METRICS.serialize.recordSince(start);
+        return batch.size();
+    }
+
+    private void writeError(HttpServletResponse resp, String message) throws IOException {
+        PrintWriter out = resp.getWriter();
+        out.print("{\"error\": \"" + message + "\"}");
+        out.flush();
+    }
+
+    private interface RowWriter {
+        void write(Employee row) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer out;
+        private final Set<EmployeeField> fields;
+
+        CsvRowWriter(Writer out, Set<EmployeeField> fields) throws IOException {
+            this.out = out;
+            this.fields = fields;
+            String separator = "";
+            for (EmployeeField field : fields) {
+                out.write(separator);
+                out.write(field.csvHeader);
+                separator = ",";
+            }
+            out.write('\n');
+        }
+
+        @Override
+        public void write(Employee row) throws IOException {
+            String separator = "";
+            for (EmployeeField field : fields) {
+                out.write(separator);
+                field(value(row, field));
+                separator = ",";
+            }
+            out.write('\n');
+        }
+
+        private static String value(Employee row, EmployeeField field) {
+            switch (field) {
+            case EMP_NO:
+                return Integer.toString(row.getEmpNo());
+            case DATE_OF_BIRTH:
+                return row.getDateOfBirth() == null ? null : row.getDateOfBirth().toString();
+            case FIRST_NAME:
+                return row.getFirstName();
+            case LAST_NAME:
+                return row.getLastName();
+            case GENDER:
+                return row.getGender();
+            case DATE_OF_HIRING:
+                return row.getDateOfHiring() == null ? null : row.getDateOfHiring().toString();
+            default:
+                return row.getSsn();
+            }
+        }
+
+        /** RFC 4180: 쉼표/따옴표/줄바꿈이 있으면 따옴표로 감싸고 내부 따옴표는 두 번 */
+        private void field(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                    && value.indexOf('\r') < 0) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            out.write(value.replace("\"", "\"\""));
+            out.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+        private final Writer out;
+        private final JsonWriter json;
+        private final TypeAdapter<Employee> adapter;
+
+        NdjsonRowWriter(Writer out, TypeAdapter<Employee> adapter) {
+            this.out = out;
+            this.adapter = adapter;
+            this.json = new JsonWriter(out);
+            json.setHtmlSafe(true);
+            json.setStrictness(Strictness.LENIENT); // 최상위 값 여러 개 (한 줄에 하나)
+        }
+
+        @Override
+        public void write(Employee row) throws IOException {
+            adapter.write(json, row);
+            out.write('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+    }
+}
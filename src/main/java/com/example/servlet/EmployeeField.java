@@ -0,0 +1,64 @@
+package com.example.servlet;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 조회 가능한 직원 필드 (JSON 이름 / DB 컬럼 / CSV 헤더)
+ * ?fields=empNo,firstName,lastName 처럼 필요한 필드만 SELECT 하고 응답에 포함할 때 사용합니다.
+ */
+enum EmployeeField {
+    EMP_NO("empNo", "emp_no", "emp_no"),
+    DATE_OF_BIRTH("dateOfBirth", "date_of_birth", "date_of_birth"),
+    FIRST_NAME("firstName", "first_name", "first_name"),
+    LAST_NAME("lastName", "last_name", "last_name"),
+    GENDER("gender", "gender", "gender"),
+    DATE_OF_HIRING("dateOfHiring", "date_of_hiring", "date_of_hiring"),
+    SSN("ssn", "ssn_no", "ssn");
+
+    static final Set<EmployeeField> ALL = Collections.unmodifiableSet(EnumSet.allOf(EmployeeField.class));
+
+    final String jsonName;
+    final String column;
+    final String csvHeader;
+
+    EmployeeField(String jsonName, String column, String csvHeader) {
+        this.jsonName = jsonName;
+        this.column = column;
+        this.csvHeader = csvHeader;
+    }
+
+    /**
+     * 쉼표로 구분된 JSON 필드 이름 목록 (없으면 전체)
+     *
+     * @throws IllegalArgumentException 알 수 없는 필드 이름
+     */
+    static Set<EmployeeField> parse(String param) {
+        if (param == null || param.trim().isEmpty()) {
+            return ALL;
+        }
+        Set<EmployeeField> fields = EnumSet.noneOf(EmployeeField.class);
+        for (String name : param.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            EmployeeField field = byJsonName(trimmed);
+            if (field == null) {
+                throw new IllegalArgumentException("Unknown field: " + trimmed);
+            }
+            fields.add(field);
+        }
+        return fields.isEmpty() ? ALL : fields;
+    }
+
+    private static EmployeeField byJsonName(String name) {
+        for (EmployeeField field : values()) {
+            if (field.jsonName.equals(name)) {
+                return field;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.servlet;
+
+import com.example.model.Employee;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * 서블릿 공용 JSON 직렬화 (thread-safe, 요청마다 Gson을 새로 만들지 않음)
+ */
+public final class EmployeeJson {
+
+    /** 요청 본문 파싱용 (LocalDate 지원) */
+    public static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
+            .create();
+
+    /**
+     * Employee 한 건을 JsonWriter에 직접 기록 (reflection 없음).
+     * 필드 이름/순서와 null 생략 규칙은 기존 gson.toJson(employeeList) 출력과 동일합니다.
+     */
+    public static final TypeAdapter<Employee> ADAPTER = new EmployeeAdapter(EmployeeField.ALL);
+
+    private EmployeeJson() {
+    }
+
+    /**
+     * 응답 출력 스트림 위의 JsonWriter (아직 아무것도 기록하지 않음)
+     */
+    static JsonWriter newWriter(HttpServletResponse resp) throws IOException {
+        JsonWriter writer = new JsonWriter(new BufferedWriter(
+                new OutputStreamWriter(resp.getOutputStream(), StandardCharsets.UTF_8)));
+        writer.setHtmlSafe(true); // Gson 기본 출력과 동일하게 <, >, & 등을 escape
+        return writer;
+    }
+
+    /**
+     * fields 에 포함된 필드만 기록하는 adapter (?fields= projection)
+     */
+    static TypeAdapter<Employee> adapter(Set<EmployeeField> fields) {
+        return fields.equals(EmployeeField.ALL) ? ADAPTER : new EmployeeAdapter(fields);
+    }
+
+    private static final class EmployeeAdapter extends TypeAdapter<Employee> {
+        private final boolean empNo;
+
+        EmployeeAdapter(Set<EmployeeField> fields) {
+            // 나머지 필드는 SELECT 단계에서 null 로 남으므로 null 생략 규칙으로 충분함
+            this.empNo = fields.contains(EmployeeField.EMP_NO);
+        }
+
+        @Override
+        public void write(JsonWriter out, Employee e) throws IOException {
+            if (e == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            if (empNo)
+                out.name("empNo").value(e.getEmpNo());
+            if (e.getDateOfBirth() != null)
+                out.name("dateOfBirth").value(e.getDateOfBirth().toString());
+            if (e.getFirstName() != null)
+                out.name("firstName").value(e.getFirstName());
+            if (e.getLastName() != null)
+                out.name("lastName").value(e.getLastName());
+            if (e.getGender() != null)
+                out.name("gender").value(e.getGender());
+            if (e.getDateOfHiring() != null)
+                out.name("dateOfHiring").value(e.getDateOfHiring().toString());
+            if (e.getSsn() != null)
+                out.name("ssn").value(e.getSsn());
+            out.endObject();
+        }
+
+        @Override
+        public Employee read(JsonReader in) throws IOException {
+            return GSON.fromJson(in, Employee.class);
+        }
+    }
+
+    public static final class LocalDateAdapter extends TypeAdapter<LocalDate> {
+        @Override
+        public void write(JsonWriter jsonWriter, LocalDate localDate) throws IOException {
+            if (localDate == null)
+                jsonWriter.nullValue();
+            else
+                jsonWriter.value(localDate.toString());
+        }
+
+        @Override
+        public LocalDate read(JsonReader jsonReader) throws IOException {
+            if (jsonReader.peek() == JsonToken.NULL) {
+                jsonReader.nextNull();
+                return null;
+            } else {
+                return LocalDate.parse(jsonReader.nextString());
+            }
+        }
+    }
+}
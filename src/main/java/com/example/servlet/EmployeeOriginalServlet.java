@@ -1,11 +1,8 @@
 package com.example.servlet;
 
+import com.example.DbPool;
+import com.example.EmployeeTableVersion;
 import com.example.model.Employee;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.TypeAdapter;
-import com.google.gson.stream.JsonReader;
-import com.google.gson.stream.JsonWriter;
 
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
@@ -15,124 +12,137 @@ import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.sql.*;
-import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
 
-@WebServlet("/api/employees/original")
+@WebServlet(value = "/api/employees/original", asyncSupported = true)
 public class EmployeeOriginalServlet extends HttpServlet {
 
+    private static final EndpointMetrics METRICS = new EndpointMetrics("original");
+
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        RequestExecutor.getInstance().dispatch(req, resp, METRICS, this::process);
+    }
+
+    private void process(HttpServletRequest req, HttpServletResponse resp) throws IOException {
         req.setCharacterEncoding("UTF-8");
         resp.setContentType("application/json");
         resp.setCharacterEncoding("UTF-8");
 
-        List<Employee> employeeList = new ArrayList<>();
-        String url = "jdbc:mysql://mysql:3306/mysql_employees?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC&useUnicode=true&characterEncoding=UTF-8";
-        String dbUser = "testuser";
-        String dbPassword = "testpassword";
-
+        EmployeeQuery query;
         try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-        } catch (ClassNotFoundException e) {
-            resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-            writeError(resp, "JDBC Driver not found");
+            query = EmployeeQuery.from(req);
+        } catch (IllegalArgumentException e) {
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            writeError(resp, e.getMessage());
+            return;
+        } catch (IllegalStateException e) {
+            // 이름 색인 생성 중
+            resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            writeError(resp, e.getMessage());
             return;
         }
 
-        int page = 0;
-        int size = 100;
-        try {
-            String pageParam = req.getParameter("page");
-            if (pageParam != null)
-                page = Integer.parseInt(pageParam);
-            String sizeParam = req.getParameter("size");
-            if (sizeParam != null)
-                size = Integer.parseInt(sizeParam);
-        } catch (NumberFormatException e) {
+        EmployeePageCache cache = EmployeePageCache.getInstance();
+        if (!cache.isEnabled()) {
+            render(req, resp, query);
+            return;
         }
 
-        int offset = page * size;
-        int empNoParam = -1;
-        String empNoStr = req.getParameter("empNo");
-        if (empNoStr != null && !empNoStr.isEmpty()) {
-            try {
-                empNoParam = Integer.parseInt(empNoStr);
-            } catch (NumberFormatException e) {}
+        // 조회 시작 전 버전을 기록 (조회 중 등록된 행이 있으면 다음 요청에서 버려짐)
+        long version = EmployeeTableVersion.current();
+        String key = query.cacheKey() + "&type=" + EmployeeWriter.negotiate(req.getHeader("Accept"));
+        EmployeePageCache.Page page = cache.get(key, version);
+        if (page == null) {
+            EmployeePageCache.CapturingResponse capture = cache.capture(resp);
+            boolean complete = render(req, capture, query);
+            if (capture.isStreamed()) {
+                // 저장 상한보다 큰 페이지: 이미 스트리밍으로 전송됨
+                capture.flushBuffer();
+                return;
+            }
+            if (!complete || capture.getStatus() != HttpServletResponse.SC_OK) {
+                capture.writeThrough();
+                return;
+            }
+            page = new EmployeePageCache.Page(version, capture.getContentType(),
+                    capture.getHeader(EmployeeQuery.NEXT_CURSOR_HEADER), capture.toByteArray());
+            cache.put(key, page);
         }
+        writePage(req, resp, cache, page);
+    }
 
-        String sql;
-        if (empNoParam != -1) {
-            sql = "SELECT emp_no, date_of_birth, first_name, last_name, gender, date_of_hiring, ssn_no FROM employee WHERE emp_no = ?";
-        } else {
-            sql = "SELECT emp_no, date_of_birth, first_name, last_name, gender, date_of_hiring, ssn_no FROM employee LIMIT ? OFFSET ?";
+    /**
+     * 저장된(또는 방금 만든) 페이지 전송, If-None-Match 가 일치하면 본문 없이 304
+     */
+    private void writePage(HttpServletRequest req, HttpServletResponse resp, EmployeePageCache cache,
+            EmployeePageCache.Page page) throws IOException {
+        resp.setHeader("ETag", page.etag);
+        resp.setHeader("Cache-Control", "private, no-cache");
+        resp.setHeader("Vary", "Accept");
+        if (page.nextCursor != null) {
+            resp.setHeader(EmployeeQuery.NEXT_CURSOR_HEADER, page.nextCursor);
         }
+        if (EmployeePageCache.matches(req.getHeader("If-None-Match"), page.etag)) {
+            cache.recordNotModified();
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        resp.setContentType(page.contentType);
+        resp.setContentLength(page.body.length);
+        resp.getOutputStream().write(page.body);
+        resp.flushBuffer();
+    }
 
-        try (Connection conn = DriverManager.getConnection(url, dbUser, dbPassword);
-                PreparedStatement stmt = conn.prepareStatement(sql)) {
+    /**
+     * DB 조회 후 resp 에 기록합니다. 끝까지 기록했으면 true (SQL 오류 시 false)
+     */
+    private boolean render(HttpServletRequest req, HttpServletResponse resp, EmployeeQuery query) throws IOException {
+        EmployeeWriter out = null;
+        long serializeNanos = 0;
+        try (Connection conn = DbPool.getInstance().getConnection();
+                PreparedStatement stmt = query.prepare(conn)) {
 
-            if (empNoParam != -1) {
-                stmt.setInt(1, empNoParam);
-            } else {
-                stmt.setInt(1, size);
-                stmt.setInt(2, offset);
-            }
+            query.bind(stmt);
 
+            long queryStart = System.nanoTime();
             try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    int empNo = rs.getInt("emp_no");
-                    LocalDate birthDate = rs.getDate("date_of_birth").toLocalDate();
-                    String firstName = rs.getString("first_name");
-                    String lastName = rs.getString("last_name");
-                    String gender = rs.getString("gender");
-                    LocalDate hireDate = rs.getDate("date_of_hiring").toLocalDate();
-
-                    // 암호화된 상태 그대로 가져옴 (dec() 호출 없음)
-                    String ssn = rs.getString("ssn_no");
-
-                    employeeList.add(new Employee(empNo, birthDate, firstName, lastName, gender, hireDate, ssn));
+                METRICS.query.recordSince(queryStart);
+                EmployeeQuery.Rows rows = query.rows(rs);
+                String nextCursor = rows.nextCursor();
+                if (nextCursor != null) {
+                    resp.setHeader(EmployeeQuery.NEXT_CURSOR_HEADER, nextCursor);
+                }
+                out = EmployeeWriter.open(req, resp, query.getFields(), query.meta(nextCursor));
+                Employee employee;
+                // 암호화된 상태 그대로 가져옴 (dec() 호출 없음)
+                while ((employee = rows.next()) != null) {
+                    long t = System.nanoTime();
+                    out.write(employee);
+                    serializeNanos += System.nanoTime() - t;
                 }
             }
-
-            Gson gson = new GsonBuilder()
-                    .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
-                    .create();
-
-            PrintWriter out = resp.getWriter();
-            out.print(gson.toJson(employeeList));
-            out.flush();
+            long t = System.nanoTime();
+            out.finish();
+            serializeNanos += System.nanoTime() - t;
+            METRICS.serialize.record(serializeNanos);
+            return true;
 
         } catch (SQLException e) {
+            METRICS.dbErrors.increment();
             e.printStackTrace();
-            resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-            writeError(resp, "Database error: " + e.getMessage());
+            if (out == null) {
+                resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                writeError(resp, "Database error: " + e.getMessage());
+            }
+            // 스트리밍 도중 실패하면 응답이 잘린 채로 종료됨 (JSON 불완전)
+            return false;
         }
     }
 
+
     private void writeError(HttpServletResponse resp, String message) throws IOException {
         PrintWriter out = resp.getWriter();
         out.print("{\"error\": \"" + message + "\"}");
         out.flush();
     }
-
-    private static class LocalDateAdapter extends TypeAdapter<LocalDate> {
-        @Override
-        public void write(JsonWriter jsonWriter, LocalDate localDate) throws IOException {
-            if (localDate == null)
-                jsonWriter.nullValue();
-            else
-                jsonWriter.value(localDate.toString());
-        }
-
-        @Override
-        public LocalDate read(JsonReader jsonReader) throws IOException {
-            if (jsonReader.peek() == com.google.gson.stream.JsonToken.NULL) {
-                jsonReader.nextNull();
-                return null;
-            } else {
-                return LocalDate.parse(jsonReader.nextString());
-            }
-        }
-    }
 }
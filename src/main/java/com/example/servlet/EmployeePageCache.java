@@ -0,0 +1,328 @@
+package com.example.servlet;
+
+import com.example.Env;
+import com.example.metrics.Metrics;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * /api/employees/original 응답 본문 캐시 (암호문 그대로인 응답만 저장, 복호화 결과는 저장하지 않음)
+ *
+ * - 키: 조회 조건(empNo / page / after 커서, size, fields) + 응답 형식(Accept)
+ * - 항목마다 조회 시작 시점의 EmployeeTableVersion 을 기록하고, 값이 바뀌었으면 버림
+ * - 총 본문 크기 상한(PAGE_CACHE_MAX_BYTES, 기본 16MB, 0이면 비활성화)을 넘으면 오래 안 쓴 항목부터 제거 (LRU)
+ * - 상한의 1/8 보다 큰 페이지는 저장하지 않고 그대로 스트리밍
+ * - ETag는 본문의 SHA-256 (strong), 같은 내용이면 재기동 후에도 같은 값
+ */
+final class EmployeePageCache {
+
+    private static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;
+
+    /** 저장된 응답 한 건 */
+    static final class Page {
+        final long version;
+        final String contentType;
+        final String nextCursor;
+        final byte[] body;
+        final String etag;
+
+        Page(long version, String contentType, String nextCursor, byte[] body) {
+            this.version = version;
+            this.contentType = contentType;
+            this.nextCursor = nextCursor;
+            this.body = body;
+            this.etag = etag(body);
+        }
+    }
+
+    private static volatile EmployeePageCache instance;
+
+    private final long maxBytes;
+    private final int maxPageBytes;
+    private final LinkedHashMap<String, Page> pages = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+
+    EmployeePageCache(long maxBytes) {
+        this.maxBytes = Math.max(0, maxBytes);
+        this.maxPageBytes = (int) Math.min(Integer.MAX_VALUE - 8, this.maxBytes / 8);
+    }
+
+    static {
+        String help = "Employee page cache events";
+        Metrics.counterFunction("app_page_cache_events_total", help, () -> getInstance().getHits(), "event", "hit");
+        Metrics.counterFunction("app_page_cache_events_total", help, () -> getInstance().getMisses(), "event", "miss");
+        Metrics.counterFunction("app_page_cache_events_total", help, () -> getInstance().getEvictions(), "event", "eviction");
+        Metrics.counterFunction("app_page_cache_events_total", help, () -> getInstance().getInvalidations(), "event", "invalidation");
+        Metrics.counterFunction("app_page_cache_events_total", help, () -> getInstance().getNotModified(), "event", "not_modified");
+        Metrics.gauge("app_page_cache_entries", "Employee page cache entries", () -> getInstance().size());
+        Metrics.gauge("app_page_cache_bytes", "Employee page cache body bytes", () -> getInstance().getBytes());
+    }
+
+    static EmployeePageCache getInstance() {
+        if (instance == null) {
+            synchronized (EmployeePageCache.class) {
+                if (instance == null) {
+                    instance = new EmployeePageCache(Env.getLong("PAGE_CACHE_MAX_BYTES", DEFAULT_MAX_BYTES));
+                }
+            }
+        }
+        return instance;
+    }
+
+    boolean isEnabled() {
+        return maxBytes > 0;
+    }
+
+    /**
+     * 현재 버전의 페이지 (없거나 버전이 다르면 null)
+     */
+    synchronized Page get(String key, long version) {
+        Page page = pages.get(key);
+        if (page != null && page.version != version) {
+            pages.remove(key);
+            bytes -= page.body.length;
+            invalidations.increment();
+            page = null;
+        }
+        if (page == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return page;
+    }
+
+    synchronized void put(String key, Page page) {
+        if (page.body.length > maxPageBytes) {
+            return;
+        }
+        Page previous = pages.put(key, page);
+        if (previous != null) {
+            bytes -= previous.body.length;
+        }
+        bytes += page.body.length;
+        Iterator<Page> eldest = pages.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().body.length;
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    synchronized void clear() {
+        pages.clear();
+        bytes = 0;
+    }
+
+    /**
+     * 응답 본문을 메모리에 모으는 wrapper (저장 상한을 넘으면 그때부터 원래 응답으로 바로 기록)
+     */
+    CapturingResponse capture(HttpServletResponse resp) {
+        return new CapturingResponse(resp, maxPageBytes);
+    }
+
+    void recordNotModified() {
+        notModified.increment();
+    }
+
+    /**
+     * If-None-Match 비교 (weak comparison, "*" 및 여러 값 허용)
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if ("*".equals(value) || etag.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    synchronized int size() {
+        return pages.size();
+    }
+
+    synchronized long getBytes() {
+        return bytes;
+    }
+
+    long getMaxBytes() {
+        return maxBytes;
+    }
+
+    long getHits() {
+        return hits.sum();
+    }
+
+    long getMisses() {
+        return misses.sum();
+    }
+
+    long getEvictions() {
+        return evictions.sum();
+    }
+
+    long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    long getNotModified() {
+        return notModified.sum();
+    }
+
+    static final class CapturingResponse extends HttpServletResponseWrapper {
+        private final int limit;
+        // null 이면 상한을 넘어서 원래 응답으로 바로 기록 중
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+        private ServletOutputStream stream;
+        private PrintWriter writer;
+
+        CapturingResponse(HttpServletResponse resp, int limit) {
+            super(resp);
+            this.limit = limit;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (stream == null) {
+                stream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        write(new byte[] { (byte) b }, 0, 1);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        append(b, off, len);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        if (buffer == null) {
+                            getResponse().getOutputStream().flush();
+                        }
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        throw new UnsupportedOperationException("Non-blocking write is not supported");
+                    }
+                };
+            }
+            return stream;
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), StandardCharsets.UTF_8));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (buffer == null) {
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            if (buffer != null) {
+                buffer.reset();
+            }
+            super.resetBuffer();
+        }
+
+        @Override
+        public void reset() {
+            if (buffer != null) {
+                buffer.reset();
+            }
+            super.reset();
+        }
+
+        private void append(byte[] b, int off, int len) throws IOException {
+            if (buffer == null) {
+                getResponse().getOutputStream().write(b, off, len);
+                return;
+            }
+            buffer.write(b, off, len);
+            if (buffer.size() > limit) {
+                buffer.writeTo(getResponse().getOutputStream());
+                buffer = null;
+            }
+        }
+
+        /** 상한을 넘어 이미 원래 응답으로 기록했는지 여부 (이 경우 저장하지 않음) */
+        boolean isStreamed() {
+            return buffer == null;
+        }
+
+        byte[] toByteArray() {
+            if (writer != null) {
+                writer.flush();
+            }
+            return buffer.toByteArray();
+        }
+
+        /**
+         * 모은 본문을 그대로 원래 응답으로 기록 (오류 응답 등 저장하지 않는 경우)
+         */
+        void writeThrough() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (buffer != null) {
+                buffer.writeTo(getResponse().getOutputStream());
+                buffer = null;
+            }
+            getResponse().flushBuffer();
+        }
+    }
+}
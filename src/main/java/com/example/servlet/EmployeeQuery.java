@@ -0,0 +1,350 @@
+package com.example.servlet;
+
+import com.example.EmployeeCount;
+import com.example.model.Employee;
+import com.example.search.EmployeeNameIndex;
+
+import javax.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 직원 목록 조회 파라미터 (empNo / page / after 커서) 파싱 및 SQL 생성
+ *
+ * - empNo=N        : 단건 조회
+ * - after=CURSOR   : emp_no 기준 keyset(seek) 페이징, 다음 커서는 X-Next-Cursor 헤더로 반환 (after=0 부터 시작)
+ *                    size + 1 건을 앞으로만 읽어서 다음 행이 있을 때만 커서를 만듦 (별도 집계 쿼리 없음).
+ *                    헤더를 본문보다 먼저 보내야 하므로 이 모드만 한 페이지(최대 MAX_PAGE 행)를 모은 뒤 기록
+ * - page=N         : 기존 LIMIT/OFFSET 페이징 (호환용)
+ * - size=N         : 페이지 크기 (기본 100, 0 ~ MAX_PAGE 로 제한)
+ * - fields=a,b,c   : 필요한 필드만 SELECT / 응답 (ssn이 없으면 복호화 단계 생략)
+ * - firstName=, lastName= (+ match=prefix|exact) : 이름 색인(EmployeeNameIndex)으로 찾은 emp_no 중 이번 페이지만
+ *                    emp_no IN (...) 으로 조회 (page / after 와 함께 사용, 다음 커서는 색인 결과로 계산)
+ * - meta=true      : 본문에 total / pageCount / nextCursor 포함 (목록 조회만, total 은 EmployeeCount 값이며
+ *                    이름 검색이면 색인 결과 건수. 어느 쪽도 COUNT(*) 를 실행하지 않음)
+ */
+final class EmployeeQuery {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String CURSOR_PREFIX = "emp:";
+    // 한 페이지의 최대 행 수 (이름 검색은 IN 목록 크기)
+    static final int MAX_PAGE = 10000;
+
+    private int page = 0;
+    private int size = 100;
+    private int empNo = -1;
+    private int after = -1;
+    private Set<EmployeeField> fields = EmployeeField.ALL;
+    private String nameFilter;
+    private int[] pageEmpNos;
+    private String searchNextCursor;
+    private int searchTotal;
+    private boolean withMeta;
+
+    private EmployeeQuery() {
+    }
+
+    /**
+     * @throws IllegalArgumentException after 커서 또는 fields 형식이 잘못된 경우
+     * @throws IllegalStateException 이름 검색을 요청했는데 색인이 아직 준비되지 않은 경우
+     */
+    static EmployeeQuery from(HttpServletRequest req) {
+        EmployeeQuery query = new EmployeeQuery();
+        try {
+            String pageParam = req.getParameter("page");
+            if (pageParam != null)
+                query.page = Integer.parseInt(pageParam);
+            String sizeParam = req.getParameter("size");
+            if (sizeParam != null)
+                query.size = Integer.parseInt(sizeParam);
+        } catch (NumberFormatException e) {
+        }
+        query.size = Math.max(0, Math.min(query.size, MAX_PAGE));
+
+        String empNoStr = req.getParameter("empNo");
+        if (empNoStr != null && !empNoStr.isEmpty()) {
+            try {
+                query.empNo = Integer.parseInt(empNoStr);
+            } catch (NumberFormatException e) {}
+        }
+
+        String afterStr = req.getParameter("after");
+        if (afterStr != null && !afterStr.isEmpty()) {
+            query.after = decodeCursor(afterStr);
+        }
+
+        query.fields = EmployeeField.parse(req.getParameter("fields"));
+        query.withMeta = "true".equalsIgnoreCase(req.getParameter("meta"));
+
+        String firstName = req.getParameter("firstName");
+        String lastName = req.getParameter("lastName");
+        if (!query.isSingle() && (notEmpty(firstName) || notEmpty(lastName))) {
+            String match = req.getParameter("match") == null ? "prefix" : req.getParameter("match");
+            if (!"prefix".equals(match) && !"exact".equals(match)) {
+                throw new IllegalArgumentException("Unsupported match: " + match);
+            }
+            int[] matches = EmployeeNameIndex.getInstance().search(firstName, lastName, "exact".equals(match));
+            query.nameFilter = "first=" + firstName + "&last=" + lastName + "&match=" + match;
+            query.selectSearchPage(matches);
+        }
+        return query;
+    }
+
+    private static boolean notEmpty(String value) {
+        return value != null && !value.isEmpty();
+    }
+
+    /**
+     * 색인 검색 결과(오름차순 emp_no)에서 이번 페이지 구간을 고릅니다.
+     */
+    private void selectSearchPage(int[] matches) {
+        int from;
+        if (after != -1) {
+            from = Arrays.binarySearch(matches, after);
+            from = from >= 0 ? from + 1 : -from - 1;
+        } else {
+            from = (int) Math.min(matches.length, Math.max(0L, (long) page * size));
+        }
+        int to = (int) Math.min(matches.length, from + (long) Math.max(0, size));
+        pageEmpNos = Arrays.copyOfRange(matches, from, to);
+        searchTotal = matches.length;
+        if (after != -1 && to > from && to < matches.length) {
+            searchNextCursor = encodeCursor(matches[to - 1]);
+        }
+    }
+
+    boolean isSingle() {
+        return empNo != -1;
+    }
+
+    boolean isSearch() {
+        return !isSingle() && pageEmpNos != null;
+    }
+
+    boolean isCursor() {
+        return !isSingle() && after != -1;
+    }
+
+    int getSize() {
+        return size;
+    }
+
+    Set<EmployeeField> getFields() {
+        return fields;
+    }
+
+    boolean includesSsn() {
+        return fields.contains(EmployeeField.SSN);
+    }
+
+    /**
+     * 같은 SQL / 바인딩 / 응답 필드면 같은 키 (목록 페이지 캐시용)
+     */
+    String cacheKey() {
+        String target = isSingle() ? "empNo=" + empNo : isCursor() ? "after=" + after : "page=" + page;
+        return target + "&size=" + size + "&fields=" + fields + (isSearch() ? "&" + nameFilter : "")
+                + (withMeta ? "&meta" : "");
+    }
+
+    /**
+     * meta=true 인 목록 조회의 페이지 정보 (아니면 null)
+     */
+    EmployeeWriter.Meta meta(String nextCursor) {
+        if (!withMeta || isSingle()) {
+            return null;
+        }
+        long total = isSearch() ? searchTotal : EmployeeCount.get();
+        return new EmployeeWriter.Meta(total, size, nextCursor);
+    }
+
+    /**
+     * 목록 조회 statement. Connector/J 기본 동작(결과 전체를 먼저 받아 둠) 대신 행 단위 streaming 으로 읽으므로
+     * 메모리는 페이지 크기와 관계없이 일정 (커서 모드는 rows 참고). result set 을 닫기 전에는 같은 커넥션으로
+     * 다른 쿼리를 실행할 수 없음
+     */
+    PreparedStatement prepare(Connection conn) throws SQLException {
+        PreparedStatement stmt = conn.prepareStatement(sql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        try {
+            stmt.setFetchSize(Integer.MIN_VALUE); // Connector/J: 행 단위 streaming
+        } catch (SQLException e) {
+            stmt.close();
+            throw e;
+        }
+        return stmt;
+    }
+
+    String sql() {
+        if (isSingle()) {
+            return "SELECT " + columns(fields) + " FROM employee WHERE emp_no = ?";
+        } else if (isSearch()) {
+            if (pageEmpNos.length == 0) {
+                return "SELECT " + columns(fields) + " FROM employee WHERE 1 = 0";
+            }
+            StringBuilder sql = new StringBuilder("SELECT ").append(columns(fields))
+                    .append(" FROM employee WHERE emp_no IN (?");
+            for (int i = 1; i < pageEmpNos.length; i++) {
+                sql.append(", ?");
+            }
+            return sql.append(") ORDER BY emp_no").toString();
+        } else if (isCursor()) {
+            return "SELECT " + columns(fields) + " FROM employee WHERE emp_no > ? ORDER BY emp_no LIMIT ?";
+        } else {
+            return "SELECT " + columns(fields) + " FROM employee LIMIT ? OFFSET ?";
+        }
+    }
+
+    /**
+     * 전체 테이블 내보내기용 (페이징 없음, emp_no 순서)
+     */
+    static String exportSql(Set<EmployeeField> fields) {
+        return "SELECT " + columns(fields) + " FROM employee ORDER BY emp_no";
+    }
+
+    /**
+     * SSN blind index(ssn_hmac) 조회용. 결과를 복호화해서 입력값과 비교하므로 ssn_no 는 항상 SELECT
+     */
+    static String bySsnSql(Set<EmployeeField> fields) {
+        String columns = columns(fields);
+        if (!fields.contains(EmployeeField.SSN)) {
+            columns += ", " + EmployeeField.SSN.column;
+        }
+        return "SELECT " + columns + " FROM employee WHERE ssn_hmac = ? ORDER BY emp_no";
+    }
+
+    /**
+     * emp_no는 정렬/커서/오류 로그에 필요하므로 응답에 없더라도 항상 SELECT 합니다.
+     */
+    private static String columns(Set<EmployeeField> fields) {
+        StringBuilder sb = new StringBuilder(EmployeeField.EMP_NO.column);
+        for (EmployeeField field : fields) {
+            if (field != EmployeeField.EMP_NO) {
+                sb.append(", ").append(field.column);
+            }
+        }
+        return sb.toString();
+    }
+
+    void bind(PreparedStatement stmt) throws SQLException {
+        if (isSingle()) {
+            stmt.setInt(1, empNo);
+        } else if (isSearch()) {
+            for (int i = 0; i < pageEmpNos.length; i++) {
+                stmt.setInt(i + 1, pageEmpNos[i]);
+            }
+        } else if (isCursor()) {
+            stmt.setInt(1, after);
+            stmt.setInt(2, size + 1); // 다음 페이지 확인용 1건
+        } else {
+            stmt.setInt(1, size);
+            stmt.setInt(2, page * size);
+        }
+    }
+
+    /**
+     * 조회 결과를 응답할 행 목록으로 엽니다. (ssn 은 요청된 경우 암호문 그대로)
+     * 커서 모드는 size + 1 번째 행까지 앞으로만 읽어서 다음 커서를 확정하므로 이 시점에 한 페이지를 모음.
+     * 나머지 모드는 result set 을 그대로 한 행씩 넘김
+     */
+    Rows rows(ResultSet rs) throws SQLException {
+        if (isSearch() || !isCursor()) {
+            return new Rows(rs, null, isSearch() ? searchNextCursor : null);
+        }
+        List<Employee> page = new ArrayList<>(Math.min(size, 1024));
+        int lastEmpNo = -1;
+        boolean hasMore = false;
+        while (rs.next()) {
+            if (page.size() == size) {
+                // size + 1 번째 행: 다음 페이지가 있음
+                hasMore = true;
+                break;
+            }
+            Employee row = readRow(rs);
+            lastEmpNo = row.getEmpNo();
+            page.add(row);
+        }
+        return new Rows(rs, page, hasMore && lastEmpNo != -1 ? encodeCursor(lastEmpNo) : null);
+    }
+
+    private Employee readRow(ResultSet rs) throws SQLException {
+        return readEmployee(rs, fields, includesSsn() ? rs.getString(EmployeeField.SSN.column) : null);
+    }
+
+    /**
+     * 응답할 행 (rows 참고)
+     */
+    final class Rows {
+        private final ResultSet rs;
+        private final List<Employee> page;
+        private final String nextCursor;
+        private int index;
+
+        private Rows(ResultSet rs, List<Employee> page, String nextCursor) {
+            this.rs = rs;
+            this.page = page;
+            this.nextCursor = nextCursor;
+        }
+
+        /** 다음 페이지 커서 (X-Next-Cursor), 마지막 페이지거나 커서 모드가 아니면 null */
+        String nextCursor() {
+            return nextCursor;
+        }
+
+        /** 다음 행, 없으면 null */
+        Employee next() throws SQLException {
+            if (page != null) {
+                return index < page.size() ? page.get(index++) : null;
+            }
+            return rs.next() ? readRow(rs) : null;
+        }
+    }
+
+    /**
+     * 현재 행을 Employee로 변환 (SELECT 하지 않은 필드는 null, ssn은 호출 측에서 복호화 여부를 결정)
+     */
+    static Employee readEmployee(ResultSet rs, Set<EmployeeField> fields, String ssn) throws SQLException {
+        int empNo = rs.getInt("emp_no");
+        LocalDate birthDate = fields.contains(EmployeeField.DATE_OF_BIRTH) ? toLocalDate(rs.getDate("date_of_birth")) : null;
+        String firstName = fields.contains(EmployeeField.FIRST_NAME) ? rs.getString("first_name") : null;
+        String lastName = fields.contains(EmployeeField.LAST_NAME) ? rs.getString("last_name") : null;
+        String gender = fields.contains(EmployeeField.GENDER) ? rs.getString("gender") : null;
+        LocalDate hireDate = fields.contains(EmployeeField.DATE_OF_HIRING) ? toLocalDate(rs.getDate("date_of_hiring")) : null;
+        return new Employee(empNo, birthDate, firstName, lastName, gender, hireDate, ssn);
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date == null ? null : date.toLocalDate();
+    }
+
+    static String encodeCursor(int empNo) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + empNo).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static int decodeCursor(String cursor) {
+        // ?after=<emp_no> 형태의 숫자도 허용
+        try {
+            return Integer.parseInt(cursor);
+        } catch (NumberFormatException ignored) {
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (decoded.startsWith(CURSOR_PREFIX)) {
+                return Integer.parseInt(decoded.substring(CURSOR_PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException 포함
+        }
+        throw new IllegalArgumentException("Invalid cursor");
+    }
+}
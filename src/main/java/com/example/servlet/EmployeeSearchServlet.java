@@ -0,0 +1,111 @@
+package com.example.servlet;
+
+import com.example.search.EmployeeNameIndex;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * 이름 색인 검색 (DB 조회 없음)
+ *
+ * firstName= / lastName= (+ match=prefix|exact, limit) : 일치하는 emp_no 목록 (오름차순)
+ * 파라미터가 없으면 색인 상태 (행 수, 추정 메모리, 생성 시간)
+ *
+ * 행 내용이 필요하면 같은 파라미터로 /api/employees/original, /api/employee/cadp-dec, /api/employee/crdp-dec 를 호출합니다.
+ */
+@WebServlet("/api/employee/search")
+public class EmployeeSearchServlet extends HttpServlet {
+
+    private static final int DEFAULT_LIMIT = 1000;
+    private static final int MAX_LIMIT = 100_000;
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        req.setCharacterEncoding("UTF-8");
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding("UTF-8");
+
+        EmployeeNameIndex index = EmployeeNameIndex.getInstance();
+        String firstName = req.getParameter("firstName");
+        String lastName = req.getParameter("lastName");
+        if ((firstName == null || firstName.isEmpty()) && (lastName == null || lastName.isEmpty())) {
+            writeJson(resp, stats(index));
+            return;
+        }
+
+        String match = req.getParameter("match") == null ? "prefix" : req.getParameter("match");
+        int limit;
+        try {
+            if (!"prefix".equals(match) && !"exact".equals(match)) {
+                throw new IllegalArgumentException("Unsupported match: " + match);
+            }
+            limit = req.getParameter("limit") == null ? DEFAULT_LIMIT : Integer.parseInt(req.getParameter("limit"));
+            if (limit < 1 || limit > MAX_LIMIT) {
+                throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+            }
+        } catch (NumberFormatException e) {
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            writeError(resp, "Invalid limit: " + req.getParameter("limit"));
+            return;
+        } catch (IllegalArgumentException e) {
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            writeError(resp, e.getMessage());
+            return;
+        }
+
+        int[] matches;
+        long start = System.nanoTime();
+        try {
+            matches = index.search(firstName, lastName, "exact".equals(match));
+        } catch (IllegalStateException e) {
+            resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            writeError(resp, e.getMessage());
+            return;
+        }
+        long micros = (System.nanoTime() - start) / 1000;
+
+        JsonObject result = new JsonObject();
+        result.addProperty("count", matches.length);
+        result.addProperty("truncated", matches.length > limit);
+        result.addProperty("micros", micros);
+        JsonArray empNos = new JsonArray(Math.min(limit, matches.length));
+        for (int i = 0; i < matches.length && i < limit; i++) {
+            empNos.add(matches[i]);
+        }
+        result.add("empNos", empNos);
+        writeJson(resp, result);
+    }
+
+    private static JsonObject stats(EmployeeNameIndex index) {
+        JsonObject stats = new JsonObject();
+        stats.addProperty("state", index.getState().name());
+        stats.addProperty("rows", index.getRows());
+        stats.addProperty("distinctNames", index.getDistinctNames());
+        stats.addProperty("memoryBytes", index.estimateBytes());
+        stats.addProperty("bytesPerRow", index.getRows() == 0 ? 0 : index.estimateBytes() / index.getRows());
+        stats.addProperty("buildMillis", index.getBuildMillis());
+        if (index.getLastError() != null) {
+            stats.addProperty("error", index.getLastError());
+        }
+        return stats;
+    }
+
+    private void writeJson(HttpServletResponse resp, JsonObject json) throws IOException {
+        PrintWriter out = resp.getWriter();
+        out.print(json.toString());
+        out.flush();
+    }
+
+    private void writeError(HttpServletResponse resp, String message) throws IOException {
+        PrintWriter out = resp.getWriter();
+        out.print("{\"error\": \"" + message + "\"}");
+        out.flush();
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.servlet;
+
+import com.example.model.Employee;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonWriter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 목록 응답 형식 (Accept 헤더로 선택, 기본은 기존 row JSON)
+ *
+ * - application/json                          : [{"empNo":1,...}, ...] (기본, 행 단위 스트리밍)
+ * - application/vnd.employee.columnar+json    : {"count":N,"columns":{"empNo":[...],...}} (필드 이름 1회, 페이지 단위 버퍼링)
+ * - application/cbor                          : {"fields":[...],"rows":[_ [...], ...]} (필드 이름 1회, 날짜는 epoch day, 행 단위 스트리밍)
+ *
+ * meta=true 이면 total / pageCount / nextCursor 를 함께 기록합니다.
+ * (row JSON은 {"total":..,"pageCount":..,"nextCursor":..,"items":[...]}, 나머지는 최상위 객체에 같은 키 추가)
+ */
+interface EmployeeWriter {
+
+    String COLUMNAR_JSON = "application/vnd.employee.columnar+json";
+    String CBOR = "application/cbor";
+
+    void write(Employee employee) throws IOException;
+
+    void finish() throws IOException;
+
+    /**
+     * Accept 헤더에 따라 writer를 고르고 Content-Type을 설정합니다. (첫 행 기록 전에 호출)
+     */
+    static EmployeeWriter open(HttpServletRequest req, HttpServletResponse resp, Set<EmployeeField> fields,
+            Meta meta) throws IOException {
+        resp.setHeader("Vary", "Accept");
+        String type = negotiate(req.getHeader("Accept"));
+        if (CBOR.equals(type)) {
+            resp.setContentType(CBOR);
+            return new CborEmployeeWriter(new CborEncoder(new BufferedOutputStream(resp.getOutputStream())), fields,
+                    meta);
+        }
+        if (COLUMNAR_JSON.equals(type)) {
+            resp.setContentType(COLUMNAR_JSON);
+            return new ColumnarJsonWriter(resp, fields, meta);
+        }
+        resp.setContentType("application/json");
+        return new RowJsonWriter(EmployeeJson.newWriter(resp), EmployeeJson.adapter(fields), meta);
+    }
+
+    /**
+     * 페이지 정보 (meta=true). total 을 아직 모르면 -1 이며 total / pageCount 는 null 로 기록
+     */
+    final class Meta {
+        final long total;
+        final long pageCount;
+        final String nextCursor;
+
+        Meta(long total, int size, String nextCursor) {
+            this.total = total;
+            this.pageCount = total < 0 ? -1 : size <= 0 ? 0 : (total + size - 1) / size;
+            this.nextCursor = nextCursor;
+        }
+
+        void write(JsonWriter out) throws IOException {
+            if (total < 0) {
+                out.name("total").nullValue();
+                out.name("pageCount").nullValue();
+            } else {
+                out.name("total").value(total);
+                out.name("pageCount").value(pageCount);
+            }
+            out.name("nextCursor").value(nextCursor);
+        }
+
+        void write(CborEncoder out) throws IOException {
+            out.text("total");
+            if (total < 0) {
+                out.nullValue();
+            } else {
+                out.integer(total);
+            }
+            out.text("pageCount");
+            if (total < 0) {
+                out.nullValue();
+            } else {
+                out.integer(pageCount);
+            }
+            out.text("nextCursor");
+            if (nextCursor == null) {
+                out.nullValue();
+            } else {
+                out.text(nextCursor);
+            }
+        }
+    }
+
+    /**
+     * Accept 목록에서 지원하는 첫 번째 형식 (q 값은 무시), 없으면 application/json
+     */
+    static String negotiate(String accept) {
+        if (accept != null) {
+            for (String part : accept.split(",")) {
+                int semicolon = part.indexOf(';');
+                String mediaType = (semicolon < 0 ? part : part.substring(0, semicolon)).trim().toLowerCase();
+                if (CBOR.equals(mediaType) || COLUMNAR_JSON.equals(mediaType) || "application/json".equals(mediaType)) {
+                    return mediaType;
+                }
+            }
+        }
+        return "application/json";
+    }
+
+    /** 기존 형식: 행마다 객체 하나 (meta 가 있으면 items 배열로 감쌈) */
+    final class RowJsonWriter implements EmployeeWriter {
+        private final JsonWriter out;
+        private final TypeAdapter<Employee> adapter;
+        private final boolean wrapped;
+
+        RowJsonWriter(JsonWriter out, TypeAdapter<Employee> adapter, Meta meta) throws IOException {
+            this.out = out;
+            this.adapter = adapter;
+            this.wrapped = meta != null;
+            if (wrapped) {
+                out.beginObject();
+                meta.write(out);
+                out.name("items");
+            }
+            out.beginArray();
+        }
+
+        @Override
+        public void write(Employee employee) throws IOException {
+            adapter.write(out, employee);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            out.endArray();
+            if (wrapped) {
+                out.endObject();
+            }
+            out.flush();
+        }
+    }
+
+    /** 열 단위 JSON: 열 배열을 채우려면 페이지 전체가 필요하므로 finish()에서 한 번에 기록 */
+    final class ColumnarJsonWriter implements EmployeeWriter {
+        private final HttpServletResponse resp;
+        private final Set<EmployeeField> fields;
+        private final Meta meta;
+        private final List<Employee> rows = new ArrayList<>();
+
+        ColumnarJsonWriter(HttpServletResponse resp, Set<EmployeeField> fields, Meta meta) {
+            this.resp = resp;
+            this.fields = fields;
+            this.meta = meta;
+        }
+
+        @Override
+        public void write(Employee employee) {
+            rows.add(employee);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            JsonWriter out = EmployeeJson.newWriter(resp);
+            out.beginObject();
+            if (meta != null) {
+                meta.write(out);
+            }
+            out.name("count").value(rows.size());
+            out.name("columns").beginObject();
+            for (EmployeeField field : fields) {
+                out.name(field.jsonName).beginArray();
+                for (Employee row : rows) {
+                    if (field == EmployeeField.EMP_NO) {
+                        out.value(row.getEmpNo());
+                    } else {
+                        Object value = value(row, field);
+                        out.value(value == null ? null : value.toString());
+                    }
+                }
+                out.endArray();
+            }
+            out.endObject();
+            out.endObject();
+            out.flush();
+        }
+    }
+
+    /** CBOR: 헤더(필드 이름) 1회 + 행마다 값 배열, 날짜는 tag 100 (RFC 8943, epoch day) */
+    final class CborEmployeeWriter implements EmployeeWriter {
+        private final CborEncoder out;
+        private final EmployeeField[] fields;
+
+        CborEmployeeWriter(CborEncoder out, Set<EmployeeField> fields, Meta meta) throws IOException {
+            this.out = out;
+            this.fields = fields.toArray(new EmployeeField[0]);
+            if (meta == null) {
+                out.mapHeader(2);
+            } else {
+                out.mapHeader(5);
+                meta.write(out);
+            }
+            out.text("fields");
+            out.arrayHeader(this.fields.length);
+            for (EmployeeField field : this.fields) {
+                out.text(field.jsonName);
+            }
+            out.text("rows");
+            out.indefiniteArray();
+        }
+
+        @Override
+        public void write(Employee employee) throws IOException {
+            out.arrayHeader(fields.length);
+            for (EmployeeField field : fields) {
+                if (field == EmployeeField.EMP_NO) {
+                    out.integer(employee.getEmpNo());
+                    continue;
+                }
+                Object value = value(employee, field);
+                if (value == null) {
+                    out.nullValue();
+                } else if (value instanceof LocalDate) {
+                    out.epochDays((LocalDate) value);
+                } else {
+                    out.text((String) value);
+                }
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            out.end();
+            out.flush();
+        }
+    }
+
+    /** EMP_NO 이외 필드 값 (LocalDate 또는 String, 없으면 null) */
+    static Object value(Employee employee, EmployeeField field) {
+        switch (field) {
+        case DATE_OF_BIRTH:
+            return employee.getDateOfBirth();
+        case FIRST_NAME:
+            return employee.getFirstName();
+        case LAST_NAME:
+            return employee.getLastName();
+        case GENDER:
+            return employee.getGender();
+        case DATE_OF_HIRING:
+            return employee.getDateOfHiring();
+        case SSN:
+            return employee.getSsn();
+        default:
+            return employee.getEmpNo();
+        }
+    }
+}
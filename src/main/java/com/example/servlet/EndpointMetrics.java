@@ -0,0 +1,28 @@
+package com.example.servlet;
+
+import com.example.metrics.Counter;
+import com.example.metrics.Histogram;
+import com.example.metrics.Metrics;
+
+/**
+ * 서블릿(endpoint) 단위 단계별 메트릭
+ */
+final class EndpointMetrics {
+
+    final Histogram request;
+    final Histogram query;
+    final Histogram decryptPage;
+    final Histogram serialize;
+    final Counter dbErrors;
+
+    EndpointMetrics(String endpoint) {
+        this.request = Metrics.histogram("app_request_seconds", "Total request time", "endpoint", endpoint);
+        this.query = Metrics.histogram("app_db_query_seconds",
+                "SQL execution time until the first row is available", "endpoint", endpoint);
+        this.decryptPage = Metrics.histogram("app_decrypt_page_seconds",
+                "SSN decrypt/encrypt time per request", "endpoint", endpoint);
+        this.serialize = Metrics.histogram("app_serialize_seconds",
+                "JSON (de)serialization time per request", "endpoint", endpoint);
+        this.dbErrors = Metrics.counter("app_db_errors_total", "Database errors", "endpoint", endpoint);
+    }
+}
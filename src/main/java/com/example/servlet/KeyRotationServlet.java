@@ -0,0 +1,67 @@
+package com.example.servlet;
+
+import com.example.CadpClient;
+import com.example.CrdpClient;
+import com.example.DbPool;
+import com.example.rotation.KeyRotationJob;
+import com.google.gson.JsonObject;
+
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * ssn_no 재암호화 작업 관리
+ *
+ * GET    : 진행 상황 (처리 행 수, 속도, ETA)
+ * POST   : 시작/재개 (provider, from, to, jobId, threads, rangeSize, batchSize, maxRowsPerSecond)
+ * DELETE : 현재 배치까지만 처리하고 중지 (같은 jobId로 POST 하면 이어서 진행)
+ */
+@WebServlet("/api/admin/rotation")
+public class KeyRotationServlet extends RangeJobServlet<KeyRotationJob> {
+
+    public KeyRotationServlet() {
+        super("rowsRotated");
+    }
+
+    @Override
+    KeyRotationJob create(HttpServletRequest req) {
+        String provider = param(req, "provider", "cadp");
+        String to = req.getParameter("to");
+        String from = param(req, "from", null);
+        if (from == null) {
+            from = "crdp".equalsIgnoreCase(provider)
+                    ? CrdpClient.getInstance().getPolicy()
+                    : CadpClient.getInstance().getProtectionPolicyName();
+        }
+        if (to == null || to.isEmpty()) {
+            to = from; // 같은 policy의 최신 키 버전으로 재암호화
+        }
+        return new KeyRotationJob(
+                param(req, "jobId", "rotate-" + provider + "-" + to),
+                provider, from, to,
+                intParam(req, "threads", 4),
+                intParam(req, "rangeSize", 10000),
+                intParam(req, "batchSize", DbPool.getInstance().getBatchSize()),
+                intParam(req, "maxRowsPerSecond", 0));
+    }
+
+    @Override
+    KeyRotationJob start(KeyRotationJob job) {
+        return KeyRotationJob.start(job);
+    }
+
+    @Override
+    KeyRotationJob current() {
+        return KeyRotationJob.current();
+    }
+
+    @Override
+    void describe(JsonObject status, KeyRotationJob job) {
+        if (job != null) {
+            status.addProperty("jobId", job.getJobId());
+            status.addProperty("provider", job.getProvider());
+            status.addProperty("fromPolicy", job.getFromPolicy());
+            status.addProperty("toPolicy", job.getToPolicy());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.servlet;
+
+import com.example.DbPool;
+import com.example.DecryptCache;
+import com.example.metrics.Metrics;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Prometheus text exposition format (version 0.0.4)
+ */
+@WebServlet("/api/metrics")
+public class MetricsServlet extends HttpServlet {
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        resp.setContentType("text/plain; version=0.0.4");
+        resp.setCharacterEncoding("UTF-8");
+
+        // 아직 한 번도 사용되지 않은 컴포넌트도 메트릭이 노출되도록 클래스 초기화
+        DbPool.getInstance();
+        DecryptCache.getInstance();
+
+        PrintWriter out = resp.getWriter();
+        Metrics.writeTo(out);
+        out.flush();
+    }
+}
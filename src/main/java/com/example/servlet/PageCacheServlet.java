@@ -0,0 +1,50 @@
+package com.example.servlet;
+
+import com.google.gson.JsonObject;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * 목록 페이지 캐시(/api/employees/original) 통계 조회 (GET) 및 캐시 비우기 (DELETE)
+ */
+@WebServlet("/api/cache/page")
+public class PageCacheServlet extends HttpServlet {
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        writeStats(resp, EmployeePageCache.getInstance());
+    }
+
+    @Override
+    protected void doDelete(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        EmployeePageCache cache = EmployeePageCache.getInstance();
+        cache.clear();
+        writeStats(resp, cache);
+    }
+
+    private void writeStats(HttpServletResponse resp, EmployeePageCache cache) throws IOException {
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding("UTF-8");
+
+        JsonObject stats = new JsonObject();
+        stats.addProperty("enabled", cache.isEnabled());
+        stats.addProperty("size", cache.size());
+        stats.addProperty("bytes", cache.getBytes());
+        stats.addProperty("maxBytes", cache.getMaxBytes());
+        stats.addProperty("hits", cache.getHits());
+        stats.addProperty("misses", cache.getMisses());
+        stats.addProperty("evictions", cache.getEvictions());
+        stats.addProperty("invalidations", cache.getInvalidations());
+        stats.addProperty("notModified", cache.getNotModified());
+
+        PrintWriter out = resp.getWriter();
+        out.print(stats.toString());
+        out.flush();
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.servlet;
+
+import com.example.DbPool;
+import com.google.gson.JsonObject;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+@WebServlet("/api/pool/stats")
+public class PoolStatsServlet extends HttpServlet {
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding("UTF-8");
+
+        DbPool pool = DbPool.getInstance();
+        long acquireCount = pool.getAcquireCount();
+
+        JsonObject stats = new JsonObject();
+        stats.addProperty("active", pool.getActiveConnections());
+        stats.addProperty("idle", pool.getIdleConnections());
+        stats.addProperty("total", pool.getTotalConnections());
+        stats.addProperty("waiting", pool.getThreadsAwaitingConnection());
+        stats.addProperty("acquireCount", acquireCount);
+        stats.addProperty("acquireAvgMicros", acquireCount == 0 ? 0 : pool.getAcquireTotalNanos() / acquireCount / 1000);
+        stats.addProperty("acquireMaxMicros", pool.getAcquireMaxNanos() / 1000);
+        stats.addProperty("timeouts", pool.getTimeoutCount());
+
+        PrintWriter out = resp.getWriter();
+        out.print(stats.toString());
+        out.flush();
+    }
+}
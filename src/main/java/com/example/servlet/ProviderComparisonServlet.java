@@ -0,0 +1,197 @@
+package com.example.servlet;
+
+import com.example.DbPool;
+import com.example.crypto.CryptoProvider;
+import com.example.crypto.ProviderComparison;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * provider(CADP / CRDP / 로컬 AES-GCM) 복호화 처리량 비교
+ *
+ * GET  : 마지막 비교 결과
+ * POST : 비교 실행 (요청 안에서 끝날 때까지 실행, 동시에 하나만)
+ *        providers=cadp,crdp,local, source=db|synthetic (db: employee.ssn_no 샘플, synthetic: 생성한 평문),
+ *        samples(기본 1000), operations(기본 10000), warmup(기본 operations/10), threads(기본 4),
+ *        mode=single|batch, batchSize(기본 100)
+ *
+ * 같은 샘플을 반복해서 복호화하므로 DECRYPT_CACHE_MAX_ENTRIES 설정과 관계없이 DecryptCache 를 거치지 않는 경로로 측정합니다.
+ */
+@WebServlet("/api/admin/providers/compare")
+public class ProviderComparisonServlet extends HttpServlet {
+
+    private static final int MAX_SAMPLES = 100_000;
+    private static final int MAX_OPERATIONS = 1_000_000;
+    private static final int MAX_THREADS = 64;
+
+    private static final AtomicBoolean RUNNING = new AtomicBoolean();
+    private static volatile JsonObject lastResult;
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding("UTF-8");
+        JsonObject result = lastResult;
+        if (result == null) {
+            result = new JsonObject();
+            result.addProperty("state", "IDLE");
+        }
+        PrintWriter out = resp.getWriter();
+        out.print(result.toString());
+        out.flush();
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        req.setCharacterEncoding("UTF-8");
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding("UTF-8");
+
+        String[] providers;
+        String source;
+        ProviderComparison.Mode mode;
+        int samples;
+        int operations;
+        int warmup;
+        int threads;
+        int batchSize;
+        try {
+            providers = param(req, "providers", String.join(",", CryptoProvider.NAMES)).split(",");
+            for (int i = 0; i < providers.length; i++) {
+                providers[i] = providers[i].trim().toLowerCase();
+                if (!CryptoProvider.NAMES.contains(providers[i])) {
+                    throw new IllegalArgumentException("Unknown provider: " + providers[i]);
+                }
+            }
+            source = param(req, "source", "db");
+            if (!"db".equals(source) && !"synthetic".equals(source)) {
+                throw new IllegalArgumentException("Unsupported source: " + source);
+            }
+            String modeParam = param(req, "mode", "single");
+            if (!"single".equals(modeParam) && !"batch".equals(modeParam)) {
+                throw new IllegalArgumentException("Unsupported mode: " + modeParam);
+            }
+            mode = ProviderComparison.Mode.valueOf(modeParam.toUpperCase());
+            samples = intParam(req, "samples", 1000, 1, MAX_SAMPLES);
+            operations = intParam(req, "operations", 10000, 1, MAX_OPERATIONS);
+            warmup = intParam(req, "warmup", operations / 10, 0, MAX_OPERATIONS);
+            threads = intParam(req, "threads", 4, 1, MAX_THREADS);
+            batchSize = intParam(req, "batchSize", 100, 1, MAX_SAMPLES);
+        } catch (IllegalArgumentException e) {
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            writeError(resp, e.getMessage());
+            return;
+        }
+
+        if (!RUNNING.compareAndSet(false, true)) {
+            resp.setStatus(HttpServletResponse.SC_CONFLICT);
+            writeError(resp, "Comparison already running");
+            return;
+        }
+        try {
+            List<String> values;
+            try {
+                values = "db".equals(source) ? loadStoredSamples(samples) : syntheticSamples(samples);
+            } catch (SQLException e) {
+                e.printStackTrace();
+                resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                writeError(resp, "Database error: " + e.getMessage());
+                return;
+            }
+            if (values.isEmpty()) {
+                resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+                writeError(resp, "No ssn_no samples found, use source=synthetic");
+                return;
+            }
+
+            ProviderComparison comparison = new ProviderComparison(values, "db".equals(source), mode, operations,
+                    warmup, threads, batchSize);
+            JsonObject result = new JsonObject();
+            result.addProperty("source", source);
+            result.addProperty("mode", mode.name().toLowerCase());
+            result.addProperty("threads", threads);
+            if (mode == ProviderComparison.Mode.BATCH) {
+                result.addProperty("batchSize", batchSize);
+            }
+            result.addProperty("startedAt", System.currentTimeMillis());
+            JsonArray results = new JsonArray();
+            for (String provider : providers) {
+                results.add(comparison.run(provider));
+            }
+            result.add("results", results);
+            lastResult = result;
+
+            PrintWriter out = resp.getWriter();
+            out.print(result.toString());
+            out.flush();
+        } finally {
+            RUNNING.set(false);
+        }
+    }
+
+    private static List<String> loadStoredSamples(int limit) throws SQLException {
+        List<String> values = new ArrayList<>(limit);
+        try (Connection conn = DbPool.getInstance().getConnection();
+                PreparedStatement stmt = conn.prepareStatement(
+                        "SELECT ssn_no FROM employee WHERE ssn_no IS NOT NULL ORDER BY emp_no LIMIT ?")) {
+            stmt.setInt(1, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    values.add(rs.getString(1));
+                }
+            }
+        }
+        return values;
+    }
+
+    private static List<String> syntheticSamples(int count) {
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(String.format("%06d-%07d", 900101 + i % 100, 1000000 + i));
+        }
+        return values;
+    }
+
+    private static String param(HttpServletRequest req, String name, String defaultValue) {
+        String value = req.getParameter(name);
+        return value == null || value.isEmpty() ? defaultValue : value;
+    }
+
+    private static int intParam(HttpServletRequest req, String name, int defaultValue, int min, int max) {
+        String value = req.getParameter(name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        int parsed;
+        try {
+            parsed = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+        if (parsed < min || parsed > max) {
+            throw new IllegalArgumentException(name + " must be between " + min + " and " + max);
+        }
+        return parsed;
+    }
+
+    private void writeError(HttpServletResponse resp, String message) throws IOException {
+        PrintWriter out = resp.getWriter();
+        out.print("{\"error\": \"" + message + "\"}");
+        out.flush();
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.servlet;
+
+import com.example.RangeJob;
+import com.google.gson.JsonObject;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * RangeJob 관리 API 공통 처리
+ *
+ * GET    : 진행 상황 (처리 행 수, 속도, ETA)
+ * POST   : create() 로 만든 작업 시작 (잘못된 파라미터 400, 사용할 수 없음 503, 이미 실행 중 409)
+ * DELETE : 현재 배치까지만 처리하고 중지
+ */
+abstract class RangeJobServlet<J extends RangeJob> extends HttpServlet {
+
+    // 상태 JSON 에서 rowsUpdated 대신 쓰는 이름 (rowsRotated, rowsIndexed 등)
+    private final String updatedField;
+
+    RangeJobServlet(String updatedField) {
+        this.updatedField = updatedField;
+    }
+
+    /** 요청 파라미터로 작업을 만듭니다 (아직 시작하지 않음) */
+    abstract J create(HttpServletRequest req);
+
+    abstract J start(J job);
+
+    abstract J current();
+
+    /** 작업별 상태 필드 (job 이 null 이면 실행한 적 없음) */
+    void describe(JsonObject status, J job) {
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        writeStatus(resp, current());
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        req.setCharacterEncoding("UTF-8");
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding("UTF-8");
+
+        J job;
+        try {
+            job = create(req);
+        } catch (IllegalArgumentException e) {
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            writeError(resp, e.getMessage());
+            return;
+        } catch (IllegalStateException e) {
+            resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            writeError(resp, e.getMessage());
+            return;
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            writeError(resp, "Crypto client initialization failed: " + e.getMessage());
+            return;
+        }
+
+        try {
+            start(job);
+        } catch (IllegalStateException e) {
+            resp.setStatus(HttpServletResponse.SC_CONFLICT);
+            writeError(resp, e.getMessage());
+            return;
+        }
+        resp.setStatus(HttpServletResponse.SC_ACCEPTED);
+        writeStatus(resp, job);
+    }
+
+    @Override
+    protected void doDelete(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        J job = current();
+        if (job != null) {
+            job.stop();
+        }
+        writeStatus(resp, job);
+    }
+
+    static String param(HttpServletRequest req, String name, String defaultValue) {
+        String value = req.getParameter(name);
+        return value == null || value.isEmpty() ? defaultValue : value;
+    }
+
+    static int intParam(HttpServletRequest req, String name, int defaultValue) {
+        String value = req.getParameter(name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    private void writeStatus(HttpServletResponse resp, J job) throws IOException {
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding("UTF-8");
+
+        JsonObject status = new JsonObject();
+        describe(status, job);
+        if (job == null) {
+            status.addProperty("state", "IDLE");
+        } else {
+            status.addProperty("state", job.getState().name());
+            status.addProperty("startedAt", job.getStartedAtMillis());
+            status.addProperty("rangesTotal", job.getRangesTotal());
+            status.addProperty("rangesDone", job.getRangesDone());
+            status.addProperty("rowsTotal", job.getRowsTotal());
+            status.addProperty("rowsDone", job.getRowsDone());
+            status.addProperty(updatedField, job.getRowsUpdated());
+            status.addProperty("rowsSkipped", job.getRowsSkipped());
+            status.addProperty("rowsFailed", job.getRowsFailed());
+            status.addProperty("rowsPerSecond", Math.round(job.getRowsPerSecond()));
+            status.addProperty("etaSeconds", job.getEtaSeconds());
+            if (job.getLastError() != null) {
+                status.addProperty("error", job.getLastError());
+            }
+        }
+
+        PrintWriter out = resp.getWriter();
+        out.print(status.toString());
+        out.flush();
+    }
+
+    private void writeError(HttpServletResponse resp, String message) throws IOException {
+        PrintWriter out = resp.getWriter();
+        out.print("{\"error\": \"" + message + "\"}");
+        out.flush();
+    }
+}
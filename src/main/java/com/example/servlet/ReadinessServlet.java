@@ -0,0 +1,52 @@
+package com.example.servlet;
+
+import com.example.CryptoWarmup;
+import com.google.gson.JsonObject;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * readiness probe: CryptoWarmup 대상 클라이언트가 모두 준비되면 200, 아니면 503
+ * (k8s-migration/web-deployment.yaml 의 readinessProbe)
+ */
+@WebServlet("/api/health/ready")
+public class ReadinessServlet extends HttpServlet {
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding("UTF-8");
+        resp.setHeader("Cache-Control", "no-store");
+
+        boolean ready = CryptoWarmup.isReady();
+        JsonObject body = new JsonObject();
+        body.addProperty("ready", ready);
+        JsonObject providers = new JsonObject();
+        for (CryptoWarmup.Status status : CryptoWarmup.getStatuses()) {
+            JsonObject item = new JsonObject();
+            item.addProperty("state", status.getState().name());
+            item.addProperty("attempts", status.getAttempts());
+            if (status.getReadyMillis() >= 0) {
+                item.addProperty("readyMillis", status.getReadyMillis());
+            }
+            if (status.getLastError() != null) {
+                item.addProperty("error", status.getLastError());
+            }
+            providers.add(status.getProvider(), item);
+        }
+        body.add("providers", providers);
+
+        if (!ready) {
+            resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        }
+        PrintWriter out = resp.getWriter();
+        out.print(body.toString());
+        out.flush();
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.servlet;
+
+import com.example.Env;
+import com.example.metrics.Counter;
+import com.example.metrics.Metrics;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 비동기 서블릿(AsyncContext)의 blocking 작업(JDBC, CADP/CRDP 호출)을 실행하는 전용 executor
+ *
+ * Tomcat worker 스레드는 요청을 넘기고 바로 반환되므로, 동시 처리량은 servlet 스레드 수가 아니라
+ * DB 커넥션 풀 / CRDP in-flight 상한으로 제한됩니다.
+ *
+ * - SERVLET_EXECUTOR=auto(기본): Java 21 이상이면 virtual thread, 아니면 platform 스레드 풀
+ * - SERVLET_EXECUTOR=virtual | platform | none (none: 기존처럼 worker 스레드에서 동기 처리)
+ * - SERVLET_EXECUTOR_THREADS: platform 풀 크기 (기본 64)
+ * - SERVLET_MAX_CONCURRENT_REQUESTS: 동시에 처리 중인 요청 상한, 넘으면 503 (기본 1000)
+ */
+final class RequestExecutor {
+
+    /** 요청 처리 본문 (기존 서블릿의 process) */
+    interface Handler {
+        void handle(HttpServletRequest req, HttpServletResponse resp) throws IOException;
+    }
+
+    private static final int DEFAULT_THREADS = 64;
+    private static final int DEFAULT_MAX_CONCURRENT = 1000;
+
+    private static final AtomicInteger ACTIVE = new AtomicInteger();
+    private static final Counter REJECTED = Metrics.counter("app_async_rejected_total",
+            "Requests rejected because the request executor was saturated");
+
+    static {
+        Metrics.gauge("app_async_requests_active", "Requests running on the request executor", ACTIVE::get);
+    }
+
+    private static volatile RequestExecutor instance;
+
+    private final ExecutorService executor;
+    private final int maxConcurrent;
+
+    private RequestExecutor() {
+        String configured = Env.get("SERVLET_EXECUTOR", "auto").trim().toLowerCase();
+        ExecutorService created = null;
+        String resolved = "none";
+        if ("virtual".equals(configured) || "auto".equals(configured)) {
+            created = newVirtualThreadExecutor();
+            if (created != null) {
+                resolved = "virtual";
+            } else if ("virtual".equals(configured)) {
+                System.err.println("Virtual threads require Java 21+, falling back to a platform thread pool");
+            }
+        }
+        if (created == null && !"none".equals(configured)) {
+            int threads = Math.max(1, Env.getInt("SERVLET_EXECUTOR_THREADS", DEFAULT_THREADS));
+            created = Executors.newFixedThreadPool(threads, daemonThreads("request-worker-"));
+            resolved = "platform";
+        }
+        this.executor = created;
+        this.maxConcurrent = Math.max(1, Env.getInt("SERVLET_MAX_CONCURRENT_REQUESTS", DEFAULT_MAX_CONCURRENT));
+        System.out.println("Request executor: " + resolved);
+    }
+
+    static RequestExecutor getInstance() {
+        if (instance == null) {
+            synchronized (RequestExecutor.class) {
+                if (instance == null) {
+                    instance = new RequestExecutor();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 웹앱 종료 시 실행 중인 요청을 잠시 기다린 뒤 정리합니다.
+     */
+    static void shutdown() {
+        synchronized (RequestExecutor.class) {
+            if (instance != null && instance.executor != null) {
+                instance.executor.shutdown();
+                try {
+                    if (!instance.executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                        instance.executor.shutdownNow();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    instance.executor.shutdownNow();
+                }
+            }
+            instance = null;
+        }
+    }
+
+    /**
+     * 요청을 AsyncContext로 전환해서 executor에서 처리합니다.
+     * executor가 없거나(none) 비동기를 지원하지 않는 요청이면 호출 스레드에서 바로 처리합니다.
+     *
+     * @param metrics 요청 전체 시간(app_request_seconds) 기록용
+     */
+    void dispatch(HttpServletRequest req, HttpServletResponse resp, EndpointMetrics metrics, Handler handler)
+            throws IOException {
+        long start = System.nanoTime();
+        if (executor == null || !req.isAsyncSupported()) {
+            try {
+                handler.handle(req, resp);
+            } finally {
+                metrics.request.recordSince(start);
+            }
+            return;
+        }
+
+        if (ACTIVE.incrementAndGet() > maxConcurrent) {
+            ACTIVE.decrementAndGet();
+            REJECTED.increment();
+            metrics.request.recordSince(start);
+            writeError(resp, HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Server busy");
+            return;
+        }
+
+        AsyncContext async = req.startAsync(req, resp);
+        // 작업 자체의 deadline(DB 풀 / CRDP timeout)에 맡김 (컨테이너 기본 30초 timeout 비활성화)
+        async.setTimeout(0);
+        try {
+            executor.execute(() -> {
+                try {
+                    handler.handle(req, resp);
+                } catch (IOException | RuntimeException e) {
+                    e.printStackTrace();
+                    if (!resp.isCommitted()) {
+                        try {
+                            writeError(resp, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Internal error");
+                        } catch (IOException | RuntimeException ignored) {
+                            // 클라이언트 연결 종료 등
+                        }
+                    }
+                } finally {
+                    ACTIVE.decrementAndGet();
+                    metrics.request.recordSince(start);
+                    async.complete();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 종료 중
+            ACTIVE.decrementAndGet();
+            REJECTED.increment();
+            metrics.request.recordSince(start);
+            writeError(resp, HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Server shutting down");
+            async.complete();
+        }
+    }
+
+    private static void writeError(HttpServletResponse resp, int status, String message) throws IOException {
+        resp.reset();
+        resp.setStatus(status);
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding("UTF-8");
+        PrintWriter out = resp.getWriter();
+        out.print("{\"error\": \"" + message + "\"}");
+        out.flush();
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor() (Java 21+), Java 11 빌드에서도 컴파일되도록 reflection 사용
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger seq = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
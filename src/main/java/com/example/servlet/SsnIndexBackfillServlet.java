@@ -0,0 +1,53 @@
+package com.example.servlet;
+
+import com.example.DbPool;
+import com.example.search.SsnBackfillJob;
+import com.example.search.SsnBlindIndex;
+import com.google.gson.JsonObject;
+
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * ssn_hmac(blind index) 채우기 작업 관리
+ *
+ * GET    : 진행 상황 (처리 행 수, 속도, ETA)
+ * POST   : 시작 (provider=cadp|crdp, overwrite, threads, rangeSize, batchSize). 다시 POST 하면 비어 있는 행부터 진행
+ * DELETE : 현재 배치까지만 처리하고 중지
+ */
+@WebServlet("/api/admin/ssn-index")
+public class SsnIndexBackfillServlet extends RangeJobServlet<SsnBackfillJob> {
+
+    public SsnIndexBackfillServlet() {
+        super("rowsIndexed");
+    }
+
+    @Override
+    SsnBackfillJob create(HttpServletRequest req) {
+        return new SsnBackfillJob(
+                param(req, "provider", "cadp"),
+                "true".equalsIgnoreCase(req.getParameter("overwrite")),
+                intParam(req, "threads", 4),
+                intParam(req, "rangeSize", 10000),
+                intParam(req, "batchSize", DbPool.getInstance().getBatchSize()));
+    }
+
+    @Override
+    SsnBackfillJob start(SsnBackfillJob job) {
+        return SsnBackfillJob.start(job);
+    }
+
+    @Override
+    SsnBackfillJob current() {
+        return SsnBackfillJob.current();
+    }
+
+    @Override
+    void describe(JsonObject status, SsnBackfillJob job) {
+        status.addProperty("enabled", SsnBlindIndex.getInstance().isEnabled());
+        if (job != null) {
+            status.addProperty("provider", job.getProvider());
+            status.addProperty("overwrite", job.isOverwrite());
+        }
+    }
+}